@@ -9,8 +9,14 @@ import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.validation.Marker;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import javax.validation.groups.ConvertGroup;
+import java.util.List;
 
 import static ru.practicum.shareit.utility.Constants.USER_HEADER;
 
@@ -41,6 +47,17 @@ public class BookingController {
         return bookingClient.getBookings(userId, state, from, size);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<Object> getUserBookingsAfter(@RequestParam String after,
+                                                       @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                       @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+                                                       @RequestHeader(USER_HEADER) Long userId) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get booking with state={}, userId={}, after={}, size={}", stateParam, userId, after, size);
+        return bookingClient.getBookings(userId, state, after, size);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsByOwner(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                                      @Positive @RequestParam(defaultValue = "10") Integer size,
@@ -52,6 +69,17 @@ public class BookingController {
         return bookingClient.getBookingsByOwner(userId, state, from, size);
     }
 
+    @GetMapping(value = "/owner", params = "after")
+    public ResponseEntity<Object> getBookingsByOwnerAfter(@RequestParam String after,
+                                                          @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                          @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+                                                          @RequestHeader(USER_HEADER) Long userId) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get bookings with state={}, ownerId={}, after={}, size={}", stateParam, userId, after, size);
+        return bookingClient.getBookingsByOwner(userId, state, after, size);
+    }
+
     @PostMapping
     public ResponseEntity<Object> bookItem(@RequestBody @Validated(Marker.OnCreate.class) BookingRequestDto requestDto,
                                            @RequestHeader(USER_HEADER) Long userId) {
@@ -59,6 +87,14 @@ public class BookingController {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> bookItems(@RequestBody @NotEmpty @Size(max = 500)
+                                            List<@Valid @ConvertGroup(to = Marker.OnCreate.class) BookingRequestDto> requestDtos,
+                                            @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@PathVariable(value = "bookingId") Long id,
                                                  @RequestHeader(USER_HEADER) Long userId,
@@ -66,4 +102,12 @@ public class BookingController {
         log.info("Approved booking {}, userId={}, isApprove={}", id, userId, isApproved);
         return bookingClient.approveBooking(userId, id, isApproved);
     }
+
+    @PatchMapping
+    public ResponseEntity<Object> approveBookings(@RequestBody @NotEmpty @Size(max = 100) List<@NotNull Long> ids,
+                                                  @RequestHeader(USER_HEADER) Long userId,
+                                                  @RequestParam(value = "approved") Boolean isApproved) {
+        log.info("Approved bookings {}, userId={}, isApprove={}", ids, userId, isApproved);
+        return bookingClient.approveBookings(userId, ids, isApproved);
+    }
 }
@@ -6,11 +6,14 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,6 +34,22 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(Long userId, Long itemId, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("/" + itemId + "/comments?after={after}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getItems(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
@@ -39,6 +58,10 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<StreamingResponseBody> streamItems(Long userId) {
+        return stream("", userId, null);
+    }
+
     public ResponseEntity<Object> searchItems(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
@@ -48,10 +71,59 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> searchItems(Long userId, String text, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "after", after,
+                "size", size
+        );
+        return get("/search?text={text}&after={after}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> searchItems(Long userId, String text, LocalDateTime start, LocalDateTime end,
+                                              Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> searchItems(Long userId, String text, LocalDateTime start, LocalDateTime end,
+                                              String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "after", after,
+                "size", size
+        );
+        return get("/search?text={text}&start={start}&end={end}&after={after}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamSearchItems(Long userId, String text) {
+        return stream("/search?text={text}", userId, Map.of("text", text));
+    }
+
+    public ResponseEntity<Object> suggestItems(Long userId, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> addItem(Long userId, ItemRequestDto itemDto) {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> addItems(Long userId, List<ItemRequestDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentRequestDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
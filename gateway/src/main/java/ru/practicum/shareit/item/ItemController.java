@@ -2,15 +2,24 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.validation.Marker;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import javax.validation.groups.ConvertGroup;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static ru.practicum.shareit.utility.Constants.USER_HEADER;
 
@@ -30,6 +39,27 @@ public class ItemController {
         return itemClient.getItem(userId, id);
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable Long id,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Get availability of item {} from {} to {}, userId={}", id, from, to, userId);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of period should be before its end");
+        }
+        return itemClient.getItemAvailability(userId, id, from, to);
+    }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long id,
+                                              @RequestParam(defaultValue = "") String after,
+                                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Get comments of item {}, userId={}, after={}, size={}", id, userId, after, size);
+        return itemClient.getComments(userId, id, after, size);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getItems(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                            @Positive @RequestParam(defaultValue = "10") Integer size,
@@ -38,6 +68,12 @@ public class ItemController {
         return itemClient.getItems(userId, from, size);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems(@RequestHeader(USER_HEADER) Long userId) {
+        log.info("Stream items with userId={}", userId);
+        return itemClient.streamItems(userId);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                               @Positive @RequestParam(defaultValue = "10") Integer size,
@@ -47,6 +83,58 @@ public class ItemController {
         return itemClient.searchItems(userId, text, from, size);
     }
 
+    @GetMapping(value = "/search", params = "after")
+    public ResponseEntity<Object> searchItemsAfter(@RequestParam String after,
+                                                   @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                   @RequestParam(value = "text") String text,
+                                                   @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Search items with text={}, userId={}, after={}, size={}", text, userId, after, size);
+        return itemClient.searchItems(userId, text, after, size);
+    }
+
+    @GetMapping(value = "/search", params = {"start", "end"})
+    public ResponseEntity<Object> searchFreeItems(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                  @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                  @RequestParam(value = "text") String text,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                  @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Search items free from {} to {} with text={}, userId={}, from={}, size={}", start, end, text, userId, from, size);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start of period should be before its end");
+        }
+        return itemClient.searchItems(userId, text, start, end, from, size);
+    }
+
+    @GetMapping(value = "/search", params = {"after", "start", "end"})
+    public ResponseEntity<Object> searchFreeItemsAfter(@RequestParam String after,
+                                                       @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                       @RequestParam(value = "text") String text,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                       @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Search items free from {} to {} with text={}, userId={}, after={}, size={}", start, end, text, userId, after, size);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start of period should be before its end");
+        }
+        return itemClient.searchItems(userId, text, start, end, after, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearchItems(@RequestParam(value = "text") String text,
+                                                                   @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Stream search items with text={}, userId={}", text, userId);
+        return itemClient.streamSearchItems(userId, text);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItems(@Positive @RequestParam(defaultValue = "10") Integer size,
+                                               @RequestParam(value = "prefix") String prefix,
+                                               @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Suggest items with prefix={}, userId={}, size={}", prefix, userId, size);
+        return itemClient.suggestItems(userId, prefix, size);
+    }
+
     @PostMapping
     public ResponseEntity<Object> addItem(@RequestBody @Validated(Marker.OnCreate.class) ItemRequestDto itemDto,
                                           @RequestHeader(USER_HEADER) Long userId) {
@@ -54,6 +142,14 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addItems(@RequestBody @NotEmpty @Size(max = 500)
+                                           List<@Valid @ConvertGroup(to = Marker.OnCreate.class) ItemRequestDto> itemDtos,
+                                           @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Creating {} items, userId={}", itemDtos.size(), userId);
+        return itemClient.addItems(userId, itemDtos);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@RequestBody @Validated(Marker.OnCreate.class) CommentRequestDto commentDto,
                                              @PathVariable Long itemId,
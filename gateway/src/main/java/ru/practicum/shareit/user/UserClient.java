@@ -6,6 +6,7 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -32,6 +33,10 @@ public class UserClient extends BaseClient {
         return get("/");
     }
 
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return stream("", null, null);
+    }
+
     public ResponseEntity<Object> addUser(UserDto userDto) {
         return post("/", userDto);
     }
@@ -2,9 +2,11 @@ package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.Marker;
 
@@ -28,6 +30,12 @@ public class UserController {
         return userClient.getUsers();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.info("Stream users request performing");
+        return userClient.streamUsers();
+    }
+
     @PostMapping
     public ResponseEntity<Object> addUser(@RequestBody @Validated({Marker.OnCreate.class}) UserDto userDto) {
         log.info("Add user {}", userDto);
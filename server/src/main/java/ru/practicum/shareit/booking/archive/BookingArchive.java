@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingParticipants;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Moves bookings that ended more than {@code shareit.booking.archive.retention} ago from {@code bookings}
+ * to {@code bookings_archive}, so that queries on recent bookings do not slow down as history grows.
+ * The approved booking that is last for its item stays in {@code bookings}, where last and next booking lookups read.
+ * Bitmaps of the bookers and owners with archived bookings let listings of other users skip {@code bookings_archive}.
+ */
+@Slf4j
+@Component
+public class BookingArchive {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final BitSet bookerIds = new BitSet();
+    private final BitSet ownerIds = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BookingArchive(BookingRepository bookingRepository,
+                          ArchivedBookingRepository archivedBookingRepository,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${shareit.booking.archive.retention:30d}") Duration retention,
+                          @Value("${shareit.booking.archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void load() {
+        List<Long> bookers = archivedBookingRepository.findBookerIds();
+        List<Long> owners = archivedBookingRepository.findOwnerIds();
+        lock.writeLock().lock();
+        try {
+            bookers.forEach(id -> set(bookerIds, id));
+            owners.forEach(id -> set(ownerIds, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("{} loaded with {} bookers and {} owners", getClass().getSimpleName(), bookers.size(), owners.size());
+    }
+
+    /**
+     * Archived bookings ended, and so started, before this time.
+     */
+    public LocalDateTime archivedBefore() {
+        return LocalDateTime.now().minus(retention);
+    }
+
+    /**
+     * Whether {@code bookings_archive} may hold bookings of the booker and the owner of the filter.
+     * Users are recorded before their bookings are moved, so a negative answer is exact.
+     */
+    public boolean mayHold(BookingFilter filter) {
+        lock.readLock().lock();
+        try {
+            return mayHold(bookerIds, filter.getBookerId()) && mayHold(ownerIds, filter.getOwnerId());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the new owner of archived bookings that changed hands with their item.
+     */
+    public void addOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            set(ownerIds, ownerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.interval:PT1H}",
+            initialDelayString = "${shareit.booking.archive.interval:PT1H}")
+    public void archive() {
+        LocalDateTime time = archivedBefore();
+        log.info("Archived {} bookings ended before {}", archiveEndedBefore(time), time);
+    }
+
+    /**
+     * Moves the bookings in batches, each in its own transaction, and returns how many were moved.
+     */
+    public int archiveEndedBefore(LocalDateTime time) {
+        int total = 0;
+        Integer moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(time));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime time) {
+        List<Long> ids = bookingRepository.findIdsByEndBefore(time, LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<BookingParticipants> participants = bookingRepository.findParticipantsByIdIn(ids);
+        lock.writeLock().lock();
+        try {
+            for (BookingParticipants booking : participants) {
+                set(bookerIds, booking.getBookerId());
+                set(ownerIds, booking.getOwnerId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return bookingRepository.moveToArchive(ids);
+    }
+
+    private static boolean mayHold(BitSet ids, Long id) {
+        // ids beyond the bitmap are not recorded
+        return id == null || id > Integer.MAX_VALUE || ids.get(id.intValue());
+    }
+
+    private static void set(BitSet ids, Long id) {
+        if (id <= Integer.MAX_VALUE) {
+            ids.set(id.intValue());
+        }
+    }
+}
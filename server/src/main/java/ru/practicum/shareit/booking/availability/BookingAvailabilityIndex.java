@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Per-day bitmaps of the items that have an approved booking overlapping the day, for bookings
+ * that have not ended yet. A window is free for an item whose bit is clear on every day of the window;
+ * items with a set bit are checked exactly against their {@link BookingTimelineCache booking timeline}.
+ * A change of the item's bookings rebuilds its bits once committed. Rebuilds of one item run one at a time,
+ * so the bookings read last are the ones applied last.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final int ITEM_LOCKS = 64;
+
+    private final BookingRepository bookingRepository;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final NavigableMap<LocalDate, BitSet> days = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock[] itemLocks = IntStream.range(0, ITEM_LOCKS)
+            .mapToObj(i -> new ReentrantLock())
+            .toArray(Lock[]::new);
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0;
+        List<Booking> chunk;
+        do {
+            chunk = bookingRepository.findAllByStatusAndEndAfterAndIdGreaterThanOrderById(BookingStatus.APPROVED, now,
+                    lastId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Booking booking : chunk) {
+                    add(booking);
+                    lastId = booking.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+        log.info("{} loaded with {} days", getClass().getSimpleName(), size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Long itemId = event.getItemId();
+        Lock itemLock = itemLock(itemId);
+        itemLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Booking> bookings = bookingRepository.findAllByItemIdAndStatusAndEndAfter(itemId, BookingStatus.APPROVED, now);
+            lock.writeLock().lock();
+            try {
+                days.headMap(now.toLocalDate()).clear();
+                remove(itemId);
+                bookings.forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getCurrent() == null) {
+            Lock itemLock = itemLock(event.getPrevious().getId());
+            itemLock.lock();
+            try {
+                lock.writeLock().lock();
+                try {
+                    remove(event.getPrevious().getId());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                itemLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Test of whether an item has no approved booking overlapping {@code [start, end)}.
+     * Exact for any {@code start} after the call.
+     */
+    public LongPredicate freeDuring(LocalDateTime start, LocalDateTime end) {
+        BitSet booked = new BitSet();
+        lock.readLock().lock();
+        try {
+            for (BitSet day : days.subMap(start.toLocalDate(), true, lastDay(end), true).values()) {
+                booked.or(day);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return itemId -> itemId <= Integer.MAX_VALUE && !booked.get((int) itemId)
+                || bookingTimelineCache.get(itemId).isFree(start, end);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return days.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Lock itemLock(long itemId) {
+        return itemLocks[(int) Math.floorMod(itemId, (long) ITEM_LOCKS)];
+    }
+
+    private void add(Booking booking) {
+        long itemId = booking.getItem().getId();
+        if (itemId > Integer.MAX_VALUE) {
+            // such items are always checked against their timeline
+            return;
+        }
+        LocalDate first = booking.getStart().toLocalDate();
+        LocalDate today = LocalDate.now();
+        LocalDate last = lastDay(booking.getEnd());
+        for (LocalDate day = first.isBefore(today) ? today : first; !day.isAfter(last); day = day.plusDays(1)) {
+            days.computeIfAbsent(day, d -> new BitSet()).set((int) itemId);
+        }
+    }
+
+    private void remove(long itemId) {
+        if (itemId > Integer.MAX_VALUE) {
+            return;
+        }
+        Iterator<BitSet> iterator = days.values().iterator();
+        while (iterator.hasNext()) {
+            BitSet day = iterator.next();
+            day.clear((int) itemId);
+            if (day.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static LocalDate lastDay(LocalDateTime end) {
+        return end.minusNanos(1).toLocalDate();
+    }
+}
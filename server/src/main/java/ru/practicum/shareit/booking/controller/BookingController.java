@@ -4,8 +4,10 @@ import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingUpdateResultDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.utility.SliceDto;
 
 import java.util.List;
 
@@ -31,6 +33,14 @@ public class BookingController {
         return bookingService.getUserBookings(userId, state, from, size);
     }
 
+    @GetMapping(params = "after")
+    SliceDto<BookingDto> getUserBookingsAfter(@RequestParam String after,
+                                              @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestParam(value = "state", defaultValue = "ALL") BookingState state,
+                                              @RequestHeader(USER_HEADER) Long userId) {
+        return bookingService.getUserBookings(userId, state, after, size);
+    }
+
     @GetMapping("/owner")
     List<BookingDto> getBookingsByOwner(@RequestParam(defaultValue = "0") Integer from,
                                         @RequestParam(defaultValue = "10") Integer size,
@@ -39,16 +49,37 @@ public class BookingController {
         return bookingService.getBookingsByOwner(userId, state, from, size);
     }
 
+    @GetMapping(value = "/owner", params = "after")
+    SliceDto<BookingDto> getBookingsByOwnerAfter(@RequestParam String after,
+                                                 @RequestParam(defaultValue = "10") Integer size,
+                                                 @RequestParam(value = "state", defaultValue = "ALL") BookingState state,
+                                                 @RequestHeader(USER_HEADER) Long userId) {
+        return bookingService.getBookingsByOwner(userId, state, after, size);
+    }
+
     @PostMapping
     BookingDto addBooking(@RequestBody BookingCreateDto bookingDto,
                           @RequestHeader(USER_HEADER) Long userId) {
         return bookingService.addBooking(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    List<BookingDto> addBookings(@RequestBody List<BookingCreateDto> bookingDtos,
+                                 @RequestHeader(USER_HEADER) Long userId) {
+        return bookingService.addBookings(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     BookingDto approveBooking(@PathVariable(value = "bookingId") Long id,
                               @RequestHeader(USER_HEADER) Long userId,
                               @RequestParam(value = "approved") Boolean isApproved) {
         return bookingService.updateBooking(id, userId, isApproved);
     }
+
+    @PatchMapping
+    List<BookingUpdateResultDto> approveBookings(@RequestBody List<Long> ids,
+                                                 @RequestHeader(USER_HEADER) Long userId,
+                                                 @RequestParam(value = "approved") Boolean isApproved) {
+        return bookingService.updateBookings(ids, userId, isApproved);
+    }
 }
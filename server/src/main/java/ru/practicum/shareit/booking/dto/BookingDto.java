@@ -23,6 +23,14 @@ public class BookingDto {
     private Booker booker;
     private Item item;
 
+    /**
+     * Flat form used by projection queries.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long bookerId, String bookerName, Long itemId, String itemName) {
+        this(id, start, end, status, new Booker(bookerId, bookerName), new Item(itemId, itemName));
+    }
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Outcome of one booking of a bulk update: the new status, or the error that left the booking unchanged.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Generated
+public class BookingUpdateResultDto {
+    private Long id;
+    private BookingStatus status;
+    private String error;
+}
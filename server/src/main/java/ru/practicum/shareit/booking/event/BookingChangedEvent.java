@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a booking of the item is approved or rejected.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingChangedEvent {
+    private final Long itemId;
+}
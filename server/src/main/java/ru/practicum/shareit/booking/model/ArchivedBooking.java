@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A booking moved to {@code bookings_archive} by {@link ru.practicum.shareit.booking.archive.BookingArchive}.
+ * Keeps the id it had in {@code bookings}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "bookings_archive")
+@Generated
+public class ArchivedBooking {
+    @Id
+    private Long id;
+    @Column(name = "start_time")
+    private LocalDateTime start;
+    @Column(name = "end_time")
+    private LocalDateTime end;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    private Item item;
+    @Column(name = "owner_id")
+    private Long ownerId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    private User booker;
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+}
@@ -16,8 +16,12 @@ import java.time.LocalDateTime;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Generated
 public class Booking {
+    /**
+     * Taken from a pooled sequence, so that inserts of several bookings are sent as one JDBC batch.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_time")
     private LocalDateTime start;
@@ -26,9 +30,16 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @ToString.Exclude
     private Item item;
+    /**
+     * Copy of the item's owner id, so that owner listings do not join items.
+     */
+    @Column(name = "owner_id")
+    private Long ownerId;
     @ManyToOne(fetch = FetchType.LAZY)
     @ToString.Exclude
     private User booker;
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Creates the monthly {@code start_time} partitions of {@code bookings} from {@code schema-postgresql.sql}
+ * for the current month and {@code shareit.booking.partitions.months-ahead} months after it.
+ * Bookings that have already landed in {@code bookings_default} for such a month are moved into its partition.
+ * Each partition keeps approved bookings of an item that start in it from overlapping with an exclusion constraint,
+ * like {@code bookings_default}; the partitioned table cannot declare one that leaves out the partition key.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.partitions.enabled", havingValue = "true")
+public class BookingPartitionMaintainer {
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'bookings_y'yyyy'm'MM");
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${shareit.booking.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.partitions.interval:PT24H}")
+    public void maintain() {
+        ensurePartitions(YearMonth.now());
+    }
+
+    /**
+     * Returns how many partitions were created.
+     */
+    public int ensurePartitions(YearMonth from) {
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = from.plusMonths(i);
+            String name = month.format(NAME);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, name))) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> createPartition(name, month));
+            log.info("Created booking partition {}", name);
+            created++;
+        }
+        return created;
+    }
+
+    private void createPartition(String name, YearMonth month) {
+        LocalDateTime lower = month.atDay(1).atStartOfDay();
+        LocalDateTime upper = month.plusMonths(1).atDay(1).atStartOfDay();
+        // keeps bookings of the month from landing in the default partition until the new one is attached
+        jdbcTemplate.execute("lock table bookings_default in share row exclusive mode");
+        jdbcTemplate.execute("create table " + name + " (like bookings including defaults)");
+        jdbcTemplate.execute("alter table " + name + " add constraint ex_" + name + "_item_approved_period " +
+                "exclude using gist (item_id with =, tsrange(start_time, end_time) with &&) where (status = 'APPROVED')");
+        jdbcTemplate.update("insert into " + name + " select * from bookings_default " +
+                "where start_time >= ? and start_time < ?", lower, upper);
+        jdbcTemplate.update("delete from bookings_default where start_time >= ? and start_time < ?", lower, upper);
+        jdbcTemplate.execute("alter table bookings attach partition " + name +
+                " for values from ('" + lower + "') to ('" + upper + "')");
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.List;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    boolean existsByItemIdAndBookerIdAndStatus(Long itemId, Long bookerId, BookingStatus status);
+
+    @Query("select distinct b.booker.id from ArchivedBooking b")
+    List<Long> findBookerIds();
+
+    @Query("select distinct b.ownerId from ArchivedBooking b")
+    List<Long> findOwnerIds();
+
+    @Modifying
+    @Query("update ArchivedBooking b set b.ownerId = ?2 where b.item.id = ?1")
+    int updateOwnerIdByItemId(Long itemId, Long ownerId);
+}
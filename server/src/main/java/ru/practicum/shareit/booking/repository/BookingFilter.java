@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conditions of {@link BookingQueryRepository#findByFilter}. Unset fields do not restrict the result.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class BookingFilter {
+    private final Long id;
+    private final Long bookerId;
+    private final Long ownerId;
+    private final Long itemId;
+    /**
+     * Evaluated against {@code time}, which defaults to now.
+     */
+    private final BookingState state;
+    private final LocalDateTime time;
+    /**
+     * Bookings overlapping the range from {@code rangeStart} to {@code rangeEnd}.
+     */
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    /**
+     * Keyset position: bookings after the one with this start and id in {@code (start desc, id desc)} order.
+     */
+    private final LocalDateTime afterStart;
+    private final Long afterId;
+}
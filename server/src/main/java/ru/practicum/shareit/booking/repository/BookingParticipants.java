@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * Row of {@link BookingRepository#findParticipantsByIdIn}.
+ */
+public interface BookingParticipants {
+    Long getBookerId();
+
+    Long getOwnerId();
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingQueryRepository {
+    /**
+     * Bookings matching the filter in {@code (start desc, id desc)} order, projected with their item and booker names in one statement.
+     */
+    List<BookingDto> findByFilter(BookingFilter filter, Pageable page);
+
+    /**
+     * Same as {@link #findByFilter}, over {@code bookings_archive}.
+     */
+    List<BookingDto> findArchivedByFilter(BookingFilter filter, Pageable page);
+
+    /**
+     * Copies the bookings to {@code bookings_archive} and deletes them from {@code bookings}, returns how many were moved.
+     */
+    int moveToArchive(Collection<Long> ids);
+}
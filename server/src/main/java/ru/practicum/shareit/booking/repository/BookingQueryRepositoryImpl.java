@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findByFilter(BookingFilter filter, Pageable page) {
+        return find(Booking.class, filter, page);
+    }
+
+    @Override
+    public List<BookingDto> findArchivedByFilter(BookingFilter filter, Pageable page) {
+        return find(ArchivedBooking.class, filter, page);
+    }
+
+    @Override
+    public int moveToArchive(Collection<Long> ids) {
+        entityManager.createNativeQuery("insert into bookings_archive " +
+                        "(id, start_time, end_time, item_id, booker_id, owner_id, status) " +
+                        "select id, start_time, end_time, item_id, booker_id, owner_id, status " +
+                        "from bookings where id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entityManager.createQuery("delete from Booking b where b.id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * The time states and the cursor all bound {@code start_time}, even where another predicate implies it,
+     * so that Postgres prunes the monthly partitions of {@code bookings}.
+     * Both entities name their attributes alike, so one query serves either table.
+     */
+    private List<BookingDto> find(Class<?> entity, BookingFilter filter, Pageable page) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<?> booking = query.from(entity);
+        Join<?, Item> item = booking.join("item");
+        Join<?, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getId() != null) {
+            predicates.add(cb.equal(id, filter.getId()));
+        }
+        if (filter.getBookerId() != null) {
+            predicates.add(cb.equal(booker.get("id"), filter.getBookerId()));
+        }
+        if (filter.getOwnerId() != null) {
+            predicates.add(cb.equal(booking.get("ownerId"), filter.getOwnerId()));
+        }
+        if (filter.getItemId() != null) {
+            predicates.add(cb.equal(item.get("id"), filter.getItemId()));
+        }
+        if (filter.getRangeStart() != null) {
+            predicates.add(cb.greaterThan(end, filter.getRangeStart()));
+        }
+        if (filter.getRangeEnd() != null) {
+            predicates.add(cb.lessThan(start, filter.getRangeEnd()));
+        }
+        if (filter.getAfterStart() != null) {
+            predicates.add(cb.lessThanOrEqualTo(start, filter.getAfterStart()));
+            predicates.add(cb.or(
+                    cb.lessThan(start, filter.getAfterStart()),
+                    cb.and(cb.equal(start, filter.getAfterStart()), cb.lessThan(id, filter.getAfterId()))));
+        }
+        if (filter.getState() != null) {
+            LocalDateTime time = filter.getTime() != null ? filter.getTime() : LocalDateTime.now();
+            switch (filter.getState()) {
+                case ALL:
+                    break;
+                case CURRENT:
+                    predicates.add(cb.lessThan(start, time));
+                    predicates.add(cb.greaterThan(end, time));
+                    break;
+                case PAST:
+                    predicates.add(cb.lessThan(start, time));
+                    predicates.add(cb.lessThan(end, time));
+                    break;
+                case FUTURE:
+                    predicates.add(cb.greaterThan(start, time));
+                    break;
+                case WAITING:
+                    predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                    break;
+                case REJECTED:
+                    predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown state: " + filter.getState());
+            }
+        }
+
+        query.select(cb.construct(BookingDto.class,
+                        id, start, end, booking.get("status"),
+                        booker.get("id"), booker.get("name"), item.get("id"), item.get("name")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize())
+                .getResultList();
+    }
+}
@@ -1,54 +1,70 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable page);
-
-    Page<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable page);
-
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long userId, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    Page<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime end, Pageable page);
-
-    Page<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime end, Pageable page);
-
-    Page<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable page);
-
-    Page<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable page);
-
-    Page<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    Page<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime end, Pageable page);
-
-    Page<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime end, Pageable page);
-
-    @Query(value = "select * from bookings as b " +
-            "left join items as i on b.item_id = i.id " +
-            "where b.start_time <= now() and i.id = ? and b.status = 'APPROVED' " +
-            "order by b.end_time desc " +
-            "limit 1", nativeQuery = true)
-    Booking findLastBooking(Long itemId);
-
-    @Query(value = "select * from bookings as b " +
-            "left join items as i on b.item_id = i.id " +
-            "where b.start_time > now() and i.id = ? and b.status = 'APPROVED' " +
-            "order by b.start_time " +
-            "limit 1", nativeQuery = true)
-    Booking findNextBooking(Long itemId);
-
-    List<Booking> findFirstByStartLessThanEqualAndStatusEqualsAndItemInOrderByEndDesc(LocalDateTime time, BookingStatus status, List<Item> items);
-
-    List<Booking> findFirstByStartAfterAndStatusEqualsAndItemInOrderByStart(LocalDateTime time, BookingStatus status, List<Item> items);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    /**
+     * For each item, the approved booking started by {@code time} that ends last and the first one starting after it.
+     */
+    @Query(value = "select ranked.id, ranked.start_time, ranked.end_time, ranked.item_id, ranked.booker_id, ranked.owner_id, ranked.status, ranked.version " +
+            "from (select b.*, row_number() over (" +
+            "partition by b.item_id, b.start_time <= ?2 " +
+            "order by case when b.start_time <= ?2 then b.end_time end desc, b.start_time) as rn " +
+            "from bookings as b " +
+            "where b.item_id in ?1 and b.status = 'APPROVED') as ranked " +
+            "where ranked.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextBookings(Collection<Long> itemIds, LocalDateTime time);
+
+    Optional<Booking> findFirstByItemIdAndStatusAndStartLessThanEqualOrderByEndDesc(Long itemId, BookingStatus status, LocalDateTime time);
+
+    List<Booking> findAllByItemIdAndStatusAndStartAfterOrderByStart(Long itemId, BookingStatus status, LocalDateTime time);
+
+    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(Long itemId, BookingStatus status, LocalDateTime end);
+
+    List<Booking> findAllByItemIdAndStatusAndEndAfter(Long itemId, BookingStatus status, LocalDateTime time);
+
+    List<Booking> findAllByStatusAndEndAfterAndIdGreaterThanOrderById(BookingStatus status, LocalDateTime time, Long id,
+                                                                     Pageable page);
+
+    List<Booking> findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(Collection<Long> itemIds, BookingStatus status,
+                                                                     LocalDateTime end, LocalDateTime start);
+
+    /**
+     * Sets the status of a waiting booking of the owner in one statement, returns 0 when the booking is not waiting.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.ownerId = ?2 and b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING")
+    int updateWaitingStatus(Long id, Long ownerId, BookingStatus status);
+
+    /**
+     * Bookings ended before {@code time}, except the approved booking of each item that is last at {@code now},
+     * so that last booking lookups never need {@code bookings_archive}.
+     */
+    @Query("select b.id from Booking b where b.start < ?1 and b.end < ?1 " +
+            "and (b.status <> ru.practicum.shareit.booking.model.BookingStatus.APPROVED or exists (" +
+            "select o.id from Booking o where o.item = b.item " +
+            "and o.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and o.start <= ?2 " +
+            "and (o.end > b.end or o.end = b.end and o.id > b.id))) " +
+            "order by b.end")
+    List<Long> findIdsByEndBefore(LocalDateTime time, LocalDateTime now, Pageable page);
+
+    @Query("select b.booker.id as bookerId, b.ownerId as ownerId from Booking b where b.id in ?1")
+    List<BookingParticipants> findParticipantsByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Booking b set b.ownerId = ?2 where b.item.id = ?1")
+    int updateOwnerIdByItemId(Long itemId, Long ownerId);
 
     @Query(value = "select * from bookings as b " +
             "left join items as i on b.item_id = i.id " +
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps approved bookings of an item from overlapping, selected with the {@code shareit.booking.conflict-guard} property.
+ */
+public interface BookingConflictGuard {
+    String PROPERTY = "shareit.booking.conflict-guard";
+
+    /**
+     * Loads the item before its bookings are checked for overlaps.
+     */
+    Item getItem(Long id);
+
+    /**
+     * Loads the items before their bookings are checked for overlaps, leaving out unknown ids.
+     */
+    List<Item> getItems(Collection<Long> ids);
+
+    /**
+     * Takes up front, in one fixed order, the locks that approving the bookings needs,
+     * so that concurrent bulk approvals do not deadlock.
+     */
+    void lockForApproval(Collection<Booking> bookings);
+
+    /**
+     * Approves the booking if it is still waiting, returns the number of approved bookings.
+     */
+    int approve(Booking booking);
+}
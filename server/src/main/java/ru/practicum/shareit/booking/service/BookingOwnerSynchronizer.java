@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.util.Objects;
+
+/**
+ * Keeps {@code owner_id} of bookings and archived bookings in line with the item's owner. Runs in the transaction that changes the item.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOwnerSynchronizer {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchive bookingArchive;
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        ItemDto previous = event.getPrevious();
+        ItemDto current = event.getCurrent();
+        if (previous != null && current != null && !Objects.equals(previous.getOwner(), current.getOwner())) {
+            bookingRepository.updateOwnerIdByItemId(current.getId(), current.getOwner());
+            if (archivedBookingRepository.updateOwnerIdByItemId(current.getId(), current.getOwner()) > 0) {
+                bookingArchive.addOwner(current.getOwner());
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingUpdateResultDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.utility.SliceDto;
 
 import java.util.List;
 
@@ -13,7 +15,15 @@ public interface BookingService {
 
     List<BookingDto> getBookingsByOwner(Long userId, BookingState state, Integer from, Integer size);
 
+    SliceDto<BookingDto> getUserBookings(Long userId, BookingState state, String after, Integer size);
+
+    SliceDto<BookingDto> getBookingsByOwner(Long userId, BookingState state, String after, Integer size);
+
     BookingDto addBooking(BookingCreateDto bookingDto, Long userId);
 
+    List<BookingDto> addBookings(List<BookingCreateDto> bookingDtos, Long userId);
+
     BookingDto updateBooking(Long id, Long userId, Boolean isApproved);
+
+    List<BookingUpdateResultDto> updateBookings(List<Long> ids, Long userId, Boolean isApproved);
 }
@@ -1,41 +1,66 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingUpdateResultDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.utility.BookingMapper;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.Cursor;
+import ru.practicum.shareit.utility.SliceDto;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchive bookingArchive;
     private final UserService userService;
-    private final ItemRepository itemRepository;
+    private final BookingConflictGuard conflictGuard;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
     public BookingDto getBookingById(Long id, Long userId) {
-        Booking booking = getBooking(id);
-        if (Objects.equals(booking.getBooker().getId(), userId)
-                || Objects.equals(booking.getItem().getOwner().getId(), userId)) {
-            return BookingMapper.mapToBookingDto(booking);
+        Optional<Booking> booking = bookingRepository.findById(id);
+        if (booking.isEmpty()) {
+            return getArchivedBookingById(id, userId);
+        }
+        if (Objects.equals(booking.get().getBooker().getId(), userId)
+                || Objects.equals(booking.get().getItem().getOwner().getId(), userId)) {
+            return BookingMapper.mapToBookingDto(booking.get());
         } else {
             throw new NotFoundException(String.format("Booking associated with userId=%d not found", userId));
         }
@@ -45,100 +70,223 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public List<BookingDto> getUserBookings(Long userId, BookingState state, Integer from, Integer size) {
         userService.getUser(userId);
-        LocalDateTime currentTime = LocalDateTime.now();
-        Page<Booking> bookings;
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, currentTime, currentTime, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, currentTime, page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, currentTime, page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, page);
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown state: " + state);
-        }
-        return bookings.map(BookingMapper::mapToBookingDto).getContent();
+        return findBookings(BookingFilter.builder()
+                .bookerId(userId)
+                .state(state)
+                .time(LocalDateTime.now())
+                .build(), from, size);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> getBookingsByOwner(Long ownerId, BookingState state, Integer from, Integer size) {
         userService.getUser(ownerId);
-        LocalDateTime currentTime = LocalDateTime.now();
-        Page<Booking> bookings;
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId, page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(ownerId, currentTime, currentTime, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, currentTime, page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, currentTime, page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED, page);
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown state: " + state);
-        }
-        return bookings.map(BookingMapper::mapToBookingDto).getContent();
+        return findBookings(BookingFilter.builder()
+                .ownerId(ownerId)
+                .state(state)
+                .time(LocalDateTime.now())
+                .build(), from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceDto<BookingDto> getUserBookings(Long userId, BookingState state, String after, Integer size) {
+        userService.getUser(userId);
+        return findBookings(BookingFilter.builder()
+                .bookerId(userId)
+                .state(state)
+                .time(LocalDateTime.now())
+                .build(), after, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceDto<BookingDto> getBookingsByOwner(Long ownerId, BookingState state, String after, Integer size) {
+        userService.getUser(ownerId);
+        return findBookings(BookingFilter.builder()
+                .ownerId(ownerId)
+                .state(state)
+                .time(LocalDateTime.now())
+                .build(), after, size);
     }
 
     @Override
     @Transactional
     public BookingDto addBooking(BookingCreateDto bookingDto, Long userId) {
         User user = userService.getUser(userId);
-        Item item = getItem(bookingDto.getItemId());
-        if (Objects.equals(user.getId(), item.getOwner().getId())) {
-            throw new NotFoundException(String.format("Item with id=%d is not available", item.getId()));
-        }
-        if (!item.getAvailable()) {
-            throw new IllegalArgumentException(String.format("Item with id=%d is not available", item.getId()));
-        }
+        Item item = conflictGuard.getItem(bookingDto.getItemId());
+        checkBookable(item, user);
+        checkNoApprovedOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
         Booking booking = BookingMapper.mapToBooking(bookingDto, item, user);
         return BookingMapper.mapToBookingDto(bookingRepository.save(booking));
     }
 
+    /**
+     * Either all bookings are created or, when one of them is invalid, none.
+     */
     @Override
     @Transactional
-    public BookingDto updateBooking(Long id, Long userId, Boolean isApproved) {
-        Booking booking = getBooking(id);
+    public List<BookingDto> addBookings(List<BookingCreateDto> bookingDtos, Long userId) {
         User user = userService.getUser(userId);
-        if (booking.getItem().getOwner().equals(user)) {
-            if (isApproved) {
-                if (booking.getStatus().equals(BookingStatus.WAITING)) {
-                    booking.setStatus(BookingStatus.APPROVED);
-                } else {
-                    throw new IllegalArgumentException("Booking not waiting approve");
-                }
-            } else {
-                booking.setStatus(BookingStatus.REJECTED);
+        if (bookingDtos.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = conflictGuard.getItems(bookingDtos.stream()
+                        .map(BookingCreateDto::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> bookings = new ArrayList<>(bookingDtos.size());
+        for (BookingCreateDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException(String.format("Item with id=%d not found", bookingDto.getItemId()));
             }
-        } else {
-            throw new NotFoundException(String.format("Booking associated with userId=%d not found", userId));
+            checkBookable(item, user);
+            bookings.add(BookingMapper.mapToBooking(bookingDto, item, user));
+        }
+        checkNoApprovedOverlaps(items.keySet(), bookings);
+        return bookingRepository.saveAll(bookings).stream()
+                .map(BookingMapper::mapToBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public BookingDto updateBooking(Long id, Long userId, Boolean isApproved) {
+        BookingDto booking = updateStatus(id, userId, isApproved);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getItem().getId()));
+        return booking;
+    }
+
+    /**
+     * Approvals take the locks of all the owner's bookings up front, so that concurrent bulk approvals
+     * sharing items do not deadlock. With the constraint guard a concurrent overlapping approval
+     * still fails the whole transaction.
+     */
+    @Override
+    @Transactional
+    public List<BookingUpdateResultDto> updateBookings(List<Long> ids, Long userId, Boolean isApproved) {
+        if (isApproved) {
+            List<Booking> owned = bookingRepository.findAllById(ids).stream()
+                    .filter(booking -> Objects.equals(booking.getOwnerId(), userId))
+                    .collect(Collectors.toList());
+            if (!owned.isEmpty()) {
+                conflictGuard.lockForApproval(owned);
+            }
+        }
+        List<BookingUpdateResultDto> results = new ArrayList<>(ids.size());
+        Set<Long> itemIds = new HashSet<>();
+        for (Long id : ids) {
+            try {
+                BookingDto booking = updateStatus(id, userId, isApproved);
+                itemIds.add(booking.getItem().getId());
+                results.add(new BookingUpdateResultDto(id, booking.getStatus(), null));
+            } catch (NotFoundException | IllegalArgumentException | BookingConflictException e) {
+                results.add(new BookingUpdateResultDto(id, null, e.getMessage()));
+            }
+        }
+        itemIds.forEach(itemId -> eventPublisher.publishEvent(new BookingChangedEvent(itemId)));
+        return results;
+    }
+
+    /**
+     * Waiting bookings change status with one conditional update, so of two concurrent approvals only one succeeds.
+     * Rejecting a booking that is no longer waiting falls back to a versioned entity update.
+     */
+    private BookingDto updateStatus(Long id, Long userId, Boolean isApproved) {
+        if (isApproved) {
+            Booking booking = getOwnedBooking(id, userId);
+            if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+                throw new IllegalArgumentException("Booking not waiting approve");
+            }
+            conflictGuard.getItem(booking.getItem().getId());
+            checkNoApprovedOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            if (conflictGuard.approve(booking) == 0) {
+                throw new BookingConflictException(String.format("Booking with id=%d is no longer waiting approve", id));
+            }
+        } else if (bookingRepository.updateWaitingStatus(id, userId, BookingStatus.REJECTED) == 0) {
+            getOwnedBooking(id, userId).setStatus(BookingStatus.REJECTED);
+        }
+        return bookingRepository.findByFilter(BookingFilter.builder().id(id).build(), PageRequest.of(0, 1)).get(0);
+    }
+
+    /**
+     * Reads the archive only when the page may reach past the bookings started before it, merging the first
+     * {@code offset + size} bookings of both tables then.
+     */
+    private List<BookingDto> findBookings(BookingFilter filter, Integer from, Integer size) {
+        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
+        List<BookingDto> bookings = bookingRepository.findByFilter(filter, page);
+        if (!needsArchive(filter, bookings, size)) {
+            return bookings;
+        }
+        int offset = (int) page.getOffset();
+        PageRequest head = PageRequest.of(0, offset + size);
+        List<BookingDto> merged = merge(offset == 0 ? bookings : bookingRepository.findByFilter(filter, head),
+                bookingRepository.findArchivedByFilter(filter, head), offset + size);
+        return merged.size() > offset ? new ArrayList<>(merged.subList(offset, merged.size())) : List.of();
+    }
+
+    /**
+     * Reads one booking more than requested to tell whether a following slice exists, instead of counting.
+     */
+    private SliceDto<BookingDto> findBookings(BookingFilter filter, String after, Integer size) {
+        if (!after.isBlank()) {
+            String[] key = Cursor.decode(after, 2);
+            try {
+                filter = filter.toBuilder()
+                        .afterStart(LocalDateTime.parse(key[0]))
+                        .afterId(Long.parseLong(key[1]))
+                        .build();
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+        List<BookingDto> bookings = bookingRepository.findByFilter(filter, PageRequest.of(0, size + 1));
+        if (needsArchive(filter, bookings, size + 1)) {
+            bookings = merge(bookings, bookingRepository.findArchivedByFilter(filter, PageRequest.of(0, size + 1)), size + 1);
+        }
+        if (bookings.size() <= size) {
+            return new SliceDto<>(bookings, null);
+        }
+        BookingDto last = bookings.get(size - 1);
+        return new SliceDto<>(new ArrayList<>(bookings.subList(0, size)), Cursor.encode(last.getStart(), last.getId()));
+    }
+
+    /**
+     * Archived bookings ended before {@link BookingArchive#archivedBefore()}, so they never are current or future,
+     * and they sort after a full page whose last booking started later. Most users have none of them.
+     */
+    private boolean needsArchive(BookingFilter filter, List<BookingDto> bookings, int limit) {
+        if (filter.getState() == BookingState.CURRENT || filter.getState() == BookingState.FUTURE
+                || !bookingArchive.mayHold(filter)) {
+            return false;
+        }
+        return bookings.size() < limit
+                || bookings.get(limit - 1).getStart().isBefore(bookingArchive.archivedBefore());
+    }
+
+    /**
+     * A booking archived between the two reads shows up in both of them and is kept once.
+     */
+    private List<BookingDto> merge(List<BookingDto> bookings, List<BookingDto> archived, int limit) {
+        if (archived.isEmpty()) {
+            return bookings;
         }
-        return BookingMapper.mapToBookingDto(booking);
+        Set<Long> ids = bookings.stream().map(BookingDto::getId).collect(Collectors.toSet());
+        return Stream.concat(bookings.stream(), archived.stream().filter(booking -> !ids.contains(booking.getId())))
+                .sorted(Comparator.comparing(BookingDto::getStart).thenComparing(BookingDto::getId).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private BookingDto getArchivedBookingById(Long id, Long userId) {
+        ArchivedBooking booking = archivedBookingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Booking with id=%d not found", id)));
+        if (Objects.equals(booking.getBooker().getId(), userId) || Objects.equals(booking.getOwnerId(), userId)) {
+            return BookingMapper.mapToBookingDto(booking);
+        }
+        throw new NotFoundException(String.format("Booking associated with userId=%d not found", userId));
     }
 
     private Booking getBooking(Long id) {
@@ -146,8 +294,53 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException(String.format("Booking with id=%d not found", id)));
     }
 
-    private Item getItem(Long id) {
-        return itemRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(String.format("Item with id=%d not found", id)));
+    private Booking getOwnedBooking(Long id, Long ownerId) {
+        Booking booking = getBooking(id);
+        if (!Objects.equals(booking.getOwnerId(), ownerId)) {
+            throw new NotFoundException(String.format("Booking associated with userId=%d not found", ownerId));
+        }
+        return booking;
+    }
+
+    private void checkBookable(Item item, User user) {
+        if (Objects.equals(user.getId(), item.getOwner().getId())) {
+            throw new NotFoundException(String.format("Item with id=%d is not available", item.getId()));
+        }
+        if (!item.getAvailable()) {
+            throw new IllegalArgumentException(String.format("Item with id=%d is not available", item.getId()));
+        }
+    }
+
+    /**
+     * Approved bookings of an item never overlap, so only the latest one starting before {@code end} can.
+     */
+    private void checkNoApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(itemId, BookingStatus.APPROVED, end)
+                .filter(approved -> approved.getEnd().isAfter(start))
+                .ifPresent(approved -> {
+                    throw new BookingConflictException(String.format(
+                            "Item with id=%d is already booked from %s to %s", itemId, approved.getStart(), approved.getEnd()));
+                });
+    }
+
+    /**
+     * Reads the approved bookings of all the items that overlap the whole span of the new bookings at once.
+     */
+    private void checkNoApprovedOverlaps(Collection<Long> itemIds, List<Booking> bookings) {
+        LocalDateTime start = bookings.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime end = bookings.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<Booking>> approved = bookingRepository
+                .findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(itemIds, BookingStatus.APPROVED, end, start).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        for (Booking booking : bookings) {
+            Long itemId = booking.getItem().getId();
+            approved.getOrDefault(itemId, List.of()).stream()
+                    .filter(other -> other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()))
+                    .findFirst()
+                    .ifPresent(other -> {
+                        throw new BookingConflictException(String.format(
+                                "Item with id=%d is already booked from %s to %s", itemId, other.getStart(), other.getEnd()));
+                    });
+        }
     }
 }
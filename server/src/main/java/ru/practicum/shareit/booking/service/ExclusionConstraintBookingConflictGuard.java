@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Leaves overlaps of approved bookings to the exclusion constraint that every partition of {@code bookings} declares,
+ * {@code EXCLUDE USING GIST (item_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status = 'APPROVED')},
+ * so approvals of bookings starting in the same month take no locks on each other.
+ * <p>
+ * Bookings starting in different months may sit in different partitions, out of reach of one constraint.
+ * Of two such bookings that overlap, the earlier one reaches into the start month of the later one. So an approval
+ * takes a shared advisory lock on its item and start month, and an exclusive one on every later month it reaches.
+ * Then it checks again for an approved overlap, which such a lock has made visible.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = BookingConflictGuard.PROPERTY, havingValue = "constraint")
+public class ExclusionConstraintBookingConflictGuard implements BookingConflictGuard {
+    static final String EXCLUSION_VIOLATION = "23P01";
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Item getItem(Long id) {
+        return itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Item with id=%d not found", id)));
+    }
+
+    @Override
+    public List<Item> getItems(Collection<Long> ids) {
+        return itemRepository.findAllById(ids);
+    }
+
+    /**
+     * Takes the locks in the order of their keys, an exclusive one where any of the bookings needs it.
+     */
+    @Override
+    public void lockForApproval(Collection<Booking> bookings) {
+        Map<Long, Boolean> locks = new TreeMap<>();
+        for (Booking booking : bookings) {
+            int item = Long.hashCode(booking.getItem().getId());
+            YearMonth first = YearMonth.from(booking.getStart());
+            YearMonth last = YearMonth.from(booking.getEnd());
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                locks.merge(key(item, month), !month.equals(first), Boolean::logicalOr);
+            }
+        }
+        locks.forEach((key, exclusive) -> jdbcTemplate.query(exclusive
+                        ? "select pg_advisory_xact_lock(?, ?)"
+                        : "select pg_advisory_xact_lock_shared(?, ?)",
+                rs -> {
+                }, (int) (key >> 32), key.intValue()));
+    }
+
+    @Override
+    public int approve(Booking booking) {
+        lockForApproval(List.of(booking));
+        Long itemId = booking.getItem().getId();
+        bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(itemId, BookingStatus.APPROVED,
+                        booking.getEnd())
+                .filter(approved -> approved.getEnd().isAfter(booking.getStart()))
+                .ifPresent(approved -> {
+                    throw overlap(itemId);
+                });
+        try {
+            return bookingRepository.updateWaitingStatus(booking.getId(), booking.getOwnerId(), BookingStatus.APPROVED);
+        } catch (DataIntegrityViolationException exception) {
+            Throwable cause = exception.getMostSpecificCause();
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                throw overlap(itemId);
+            }
+            throw exception;
+        }
+    }
+
+    private static long key(int item, YearMonth month) {
+        return (long) item << 32 | (month.getYear() * 12L + month.getMonthValue() - 1);
+    }
+
+    private static BookingConflictException overlap(Long itemId) {
+        return new BookingConflictException(String.format(
+                "Item with id=%d is already booked for an overlapping period", itemId));
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Locks the item row, so that overlap checks and approvals of its bookings run one at a time.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = BookingConflictGuard.PROPERTY, havingValue = "lock", matchIfMissing = true)
+public class LockingBookingConflictGuard implements BookingConflictGuard {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public Item getItem(Long id) {
+        return itemRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Item with id=%d not found", id)));
+    }
+
+    @Override
+    public List<Item> getItems(Collection<Long> ids) {
+        return itemRepository.findAllByIdForUpdate(ids);
+    }
+
+    @Override
+    public void lockForApproval(Collection<Booking> bookings) {
+        getItems(bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public int approve(Booking booking) {
+        return bookingRepository.updateWaitingStatus(booking.getId(), booking.getOwnerId(), BookingStatus.APPROVED);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Approved bookings of one item in start order, kept in parallel primitive arrays.
+ */
+public final class BookingTimeline {
+    private final long itemId;
+    private final long[] ids;
+    private final long[] bookerIds;
+    private final long[] starts;
+    private final long[] ends;
+    /**
+     * Index of the booking that ends last among the first {@code i + 1} ones.
+     */
+    private final int[] lastEnding;
+
+    private BookingTimeline(long itemId, int size) {
+        this.itemId = itemId;
+        this.ids = new long[size];
+        this.bookerIds = new long[size];
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.lastEnding = new int[size];
+    }
+
+    public static BookingTimeline of(Long itemId, List<Booking> bookings) {
+        Booking[] sorted = bookings.toArray(new Booking[0]);
+        Arrays.sort(sorted, Comparator.comparing(Booking::getStart));
+        BookingTimeline timeline = new BookingTimeline(itemId, sorted.length);
+        long lastEnd = Long.MIN_VALUE;
+        for (int i = 0; i < sorted.length; i++) {
+            timeline.ids[i] = sorted[i].getId();
+            timeline.bookerIds[i] = sorted[i].getBooker().getId();
+            timeline.starts[i] = encode(sorted[i].getStart());
+            long end = encode(sorted[i].getEnd());
+            timeline.ends[i] = end;
+            if (i == 0 || end > lastEnd) {
+                timeline.lastEnding[i] = i;
+                lastEnd = end;
+            } else {
+                timeline.lastEnding[i] = timeline.lastEnding[i - 1];
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * The booking started by {@code time} that ends last, or null.
+     */
+    public BookingShortDto last(LocalDateTime time) {
+        int started = startedBy(encode(time));
+        return started == 0 ? null : shortDto(lastEnding[started - 1]);
+    }
+
+    /**
+     * The first booking starting after {@code time}, or null.
+     */
+    public BookingShortDto next(LocalDateTime time) {
+        int started = startedBy(encode(time));
+        return started == ids.length ? null : shortDto(started);
+    }
+
+    /**
+     * Start of the first booking starting after {@code time}, when {@link #next} changes, or null.
+     */
+    public LocalDateTime nextStart(LocalDateTime time) {
+        int started = startedBy(encode(time));
+        return started == starts.length ? null : decode(starts[started]);
+    }
+
+    /**
+     * Periods between {@code from} and {@code to} that no booking overlaps, found by one sweep over the bookings
+     * in start order. Exact for any {@code from} after the timeline was loaded.
+     */
+    public List<FreeIntervalDto> free(LocalDateTime from, LocalDateTime to) {
+        long upper = encode(to);
+        long cursor = encode(from);
+        int index = startedBy(cursor);
+        if (index > 0) {
+            cursor = Math.max(cursor, ends[lastEnding[index - 1]]);
+        }
+        List<FreeIntervalDto> free = new ArrayList<>();
+        for (; index < starts.length && starts[index] < upper; index++) {
+            if (starts[index] > cursor) {
+                free.add(new FreeIntervalDto(decode(cursor), decode(starts[index])));
+            }
+            cursor = Math.max(cursor, ends[index]);
+        }
+        if (cursor < upper) {
+            free.add(new FreeIntervalDto(decode(cursor), to));
+        }
+        return free;
+    }
+
+    /**
+     * Whether no booking overlaps the period between {@code from} and {@code to}.
+     * Exact for any {@code from} after the timeline was loaded.
+     */
+    public boolean isFree(LocalDateTime from, LocalDateTime to) {
+        long lower = encode(from);
+        int index = startedBy(lower);
+        if (index > 0 && ends[lastEnding[index - 1]] > lower) {
+            return false;
+        }
+        return index == starts.length || starts[index] >= encode(to);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private int startedBy(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private BookingShortDto shortDto(int index) {
+        return new BookingShortDto(ids[index], itemId, bookerIds[index]);
+    }
+
+    private static long encode(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime decode(long time) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(time, 1_000_000_000L),
+                (int) Math.floorMod(time, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
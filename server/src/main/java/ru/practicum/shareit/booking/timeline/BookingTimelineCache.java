@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Booking timelines of the most used items. A timeline holds the booking that was last when it was
+ * loaded and all later ones, which is enough to answer last and next for any later time.
+ * A change of the item's bookings evicts its timeline once committed, before the caches built from timelines are evicted.
+ * Statistics are published as the {@code cache.*} meters with the tag {@code cache=bookingTimeline}.
+ */
+@Component
+public class BookingTimelineCache {
+    static final String NAME = "bookingTimeline";
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingTimeline> cache;
+
+    public BookingTimelineCache(BookingRepository bookingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.timeline.maximum-size:10000}") long maximumSize) {
+        this.bookingRepository = bookingRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public BookingTimeline get(Long itemId) {
+        return cache.get(itemId, this::load);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        cache.invalidate(event.getItemId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getCurrent() == null) {
+            cache.invalidate(event.getPrevious().getId());
+        }
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private BookingTimeline load(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        bookingRepository.findFirstByItemIdAndStatusAndStartLessThanEqualOrderByEndDesc(itemId, BookingStatus.APPROVED, now)
+                .ifPresent(bookings::add);
+        bookings.addAll(bookingRepository.findAllByItemIdAndStatusAndStartAfterOrderByStart(itemId, BookingStatus.APPROVED, now));
+        return BookingTimeline.of(itemId, bookings);
+    }
+}
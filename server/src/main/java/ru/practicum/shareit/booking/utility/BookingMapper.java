@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -16,6 +17,7 @@ public class BookingMapper {
         booking.setStart(bookingDto.getStart());
         booking.setEnd(bookingDto.getEnd());
         booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setBooker(user);
         booking.setStatus(BookingStatus.WAITING);
         return booking;
@@ -32,6 +34,17 @@ public class BookingMapper {
         );
     }
 
+    public BookingDto mapToBookingDto(ArchivedBooking booking) {
+        return new BookingDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                new BookingDto.Booker(booking.getBooker().getId(), booking.getBooker().getName()),
+                new BookingDto.Item(booking.getItem().getId(), booking.getItem().getName())
+        );
+    }
+
     public BookingShortDto mapToBookingShortDto(Booking booking) {
         return new BookingShortDto(
                 booking.getId(),
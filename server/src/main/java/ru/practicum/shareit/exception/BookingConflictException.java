@@ -0,0 +1,10 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Generated;
+
+@Generated
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.Generated;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -51,6 +52,22 @@ public class ExceptionApiHandler {
                 .body(Collections.singletonMap("error", exception.getMessage()));
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<Map<String, String>> bookingConflictException(BookingConflictException exception) {
+        log.error(exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(Collections.singletonMap("error", exception.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> optimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        log.error(exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(Collections.singletonMap("error", "Booking was changed concurrently"));
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<Map<String, String>> conversionFailedException(MethodArgumentTypeMismatchException exception) {
         log.error(exception.getMessage());
@@ -1,13 +1,23 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.NdjsonWriter;
+import ru.practicum.shareit.utility.SliceDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.utility.Constants.USER_HEADER;
@@ -17,6 +27,8 @@ import static ru.practicum.shareit.utility.Constants.USER_HEADER;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}")
     public ItemInfoDto getItemById(@PathVariable Long id,
@@ -24,6 +36,20 @@ public class ItemController {
         return itemService.getItemById(id, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<FreeIntervalDto> getItemAvailability(@PathVariable Long id,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(id, from, to);
+    }
+
+    @GetMapping("/{id}/comments")
+    public SliceDto<CommentDto> getComments(@PathVariable Long id,
+                                            @RequestParam(defaultValue = "") String after,
+                                            @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.getComments(id, after, size);
+    }
+
     @GetMapping
     public List<ItemInfoDto> getItems(@RequestParam(defaultValue = "0") Integer from,
                                       @RequestParam(defaultValue = "10") Integer size,
@@ -31,6 +57,13 @@ public class ItemController {
         return itemService.getItemsByUserId(userId, from, size);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems(@RequestHeader(USER_HEADER) Long userId) {
+        // errors raised once streaming has started cannot change the response status
+        userService.getUserById(userId);
+        return NdjsonWriter.response(objectMapper, writer -> itemService.streamItemsByUserId(userId, writer));
+    }
+
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam(defaultValue = "0") Integer from,
                                      @RequestParam(defaultValue = "10") Integer size,
@@ -38,12 +71,54 @@ public class ItemController {
         return itemService.searchItems(text, from, size);
     }
 
+    @GetMapping(value = "/search", params = "after")
+    public SliceDto<ItemDto> searchItemsAfter(@RequestParam String after,
+                                              @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestParam(value = "text") String text) {
+        return itemService.searchItems(text, after, size);
+    }
+
+    @GetMapping(value = "/search", params = {"start", "end"})
+    public List<ItemDto> searchFreeItems(@RequestParam(defaultValue = "0") Integer from,
+                                         @RequestParam(defaultValue = "10") Integer size,
+                                         @RequestParam(value = "text") String text,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return itemService.searchItems(text, start, end, from, size);
+    }
+
+    @GetMapping(value = "/search", params = {"after", "start", "end"})
+    public SliceDto<ItemDto> searchFreeItemsAfter(@RequestParam String after,
+                                                  @RequestParam(defaultValue = "10") Integer size,
+                                                  @RequestParam(value = "text") String text,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return itemService.searchItems(text, start, end, after, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearchItems(@RequestParam(value = "text") String text) {
+        return NdjsonWriter.response(objectMapper, writer -> itemService.streamSearchItems(text, writer));
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItems(@RequestParam(defaultValue = "10") Integer size,
+                                     @RequestParam(value = "prefix") String prefix) {
+        return itemService.suggestItems(prefix, size);
+    }
+
     @PostMapping
     public ItemDto addItem(@RequestBody ItemDto itemDto,
                            @RequestHeader(USER_HEADER) Long userId) {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<Long> addItems(@RequestBody List<ItemDto> itemDtos,
+                               @RequestHeader(USER_HEADER) Long userId) {
+        return itemService.addItems(userId, itemDtos);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestBody CommentCreateDto commentDto,
                                  @PathVariable Long itemId,
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.detail;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Item views read by {@link ItemDetailReader}, keyed by item id and by whether the viewer owns the item.
+ * An owner view expires when its next booking starts, so that last and next are never stale.
+ * Changes of the item, its bookings or its comments evict both views of the item once committed,
+ * after {@link BookingTimelineCache} has evicted the item's timeline.
+ * Statistics are published as the {@code cache.*} meters with the tag {@code cache=itemDetail}.
+ */
+@Component
+public class ItemDetailCache {
+    static final String NAME = "itemDetail";
+
+    private final ItemDetailReader itemDetailReader;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final Duration expireAfterWrite;
+    private final Cache<Key, View> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public ItemDetailCache(ItemDetailReader itemDetailReader,
+                           BookingTimelineCache bookingTimelineCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item.detail.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.item.detail.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this(itemDetailReader, bookingTimelineCache, meterRegistry, maximumSize, expireAfterWrite, Ticker.systemTicker());
+    }
+
+    ItemDetailCache(ItemDetailReader itemDetailReader,
+                    BookingTimelineCache bookingTimelineCache,
+                    MeterRegistry meterRegistry,
+                    long maximumSize,
+                    Duration expireAfterWrite,
+                    Ticker ticker) {
+        this.itemDetailReader = itemDetailReader;
+        this.bookingTimelineCache = bookingTimelineCache;
+        this.expireAfterWrite = expireAfterWrite;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ViewExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public Optional<ItemInfoDto> get(Long id, Long userId) {
+        View owned = cache.getIfPresent(new Key(id, true));
+        if (owned != null && Objects.equals(owned.item.getOwner(), userId)) {
+            return Optional.of(owned.item);
+        }
+        View other = cache.getIfPresent(new Key(id, false));
+        if (other != null && !Objects.equals(other.item.getOwner(), userId)) {
+            return Optional.of(other.item);
+        }
+        long loadedAt = generation.get();
+        Optional<ItemInfoDto> item = itemDetailReader.read(id, userId);
+        item.ifPresent(loaded -> {
+            Key key = new Key(id, Objects.equals(loaded.getOwner(), userId));
+            cache.put(key, new View(loaded, timeToLive(key)));
+            if (generation.get() != loadedAt) {
+                // the item changed while loading, the view may already be stale
+                cache.invalidate(key);
+            }
+        });
+        return item;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getPrevious() != null) {
+            invalidate(event.getPrevious().getId());
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private void invalidate(Long id) {
+        generation.incrementAndGet();
+        cache.invalidate(new Key(id, true));
+        cache.invalidate(new Key(id, false));
+    }
+
+    /**
+     * Time to live in nanoseconds, up to the start of the next booking for an owner view.
+     */
+    private long timeToLive(Key key) {
+        Duration timeToLive = expireAfterWrite;
+        if (key.owner) {
+            LocalDateTime currentTime = LocalDateTime.now();
+            LocalDateTime nextStart = bookingTimelineCache.get(key.id).nextStart(currentTime);
+            if (nextStart != null && nextStart.isBefore(currentTime.plus(timeToLive))) {
+                timeToLive = Duration.between(currentTime, nextStart);
+            }
+        }
+        return timeToLive.toNanos();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final Long id;
+        private final boolean owner;
+    }
+
+    @RequiredArgsConstructor
+    private static class View {
+        private final ItemInfoDto item;
+        private final long timeToLive;
+    }
+
+    private static class ViewExpiry implements Expiry<Key, View> {
+        @Override
+        public long expireAfterCreate(Key key, View view, long currentTime) {
+            return view.timeToLive;
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, View view, long currentTime, long currentDuration) {
+            return view.timeToLive;
+        }
+
+        @Override
+        public long expireAfterRead(Key key, View view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.detail;
+
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.util.Optional;
+
+/**
+ * Assembles the item view of {@code GET /items/{id}}, selected with the {@code shareit.item.detail-reader} property.
+ * Last and next bookings are filled in only for the owner.
+ */
+public interface ItemDetailReader {
+    String PROPERTY = "shareit.item.detail-reader";
+
+    Optional<ItemInfoDto> read(Long id, Long userId);
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.detail;
+
+/**
+ * Row of {@link ru.practicum.shareit.item.repository.ItemRepository#findDetail}.
+ */
+public interface ItemDetailView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwner();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+
+    /**
+     * JSON array of the latest comments, newest first, or null when there are none.
+     */
+    String getComments();
+
+    Long getCommentCount();
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.detail;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.utility.ItemMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+import static ru.practicum.shareit.utility.Constants.EMBEDDED_COMMENTS;
+
+/**
+ * Reads the item and its latest comments with their authors in two statements and takes last and next bookings
+ * from the cached {@link BookingTimeline}. Works on any database.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemDetailReader.PROPERTY, havingValue = "repository", matchIfMissing = true)
+public class RepositoryItemDetailReader implements ItemDetailReader {
+    private final ItemRepository itemRepository;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final CommentRepository commentRepository;
+
+    @Override
+    public Optional<ItemInfoDto> read(Long id, Long userId) {
+        return itemRepository.findById(id).map(item -> {
+            ItemInfoDto itemInfoDto = ItemMapper.mapToItemInfoDto(item);
+            if (Objects.equals(item.getOwner().getId(), userId)) {
+                BookingTimeline timeline = bookingTimelineCache.get(item.getId());
+                LocalDateTime currentTime = LocalDateTime.now();
+                itemInfoDto.setLastBooking(timeline.last(currentTime));
+                itemInfoDto.setNextBooking(timeline.next(currentTime));
+            }
+            List<CommentView> comments = commentRepository.findLatestByItemIdIn(List.of(item.getId()), EMBEDDED_COMMENTS);
+            itemInfoDto.setComments(comments.stream()
+                    .map(ItemMapper::mapToCommentDto)
+                    .collect(toList()));
+            itemInfoDto.setCommentCount(comments.isEmpty() ? 0L : comments.get(0).getTotal());
+            return itemInfoDto;
+        });
+    }
+}
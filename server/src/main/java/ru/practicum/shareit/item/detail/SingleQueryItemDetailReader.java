@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.detail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static ru.practicum.shareit.utility.Constants.EMBEDDED_COMMENTS;
+
+/**
+ * Reads the item, its last and next bookings, its latest comments with author names and their count in one PostgreSQL statement,
+ * see {@link ItemRepository#findDetail}. Opt-in with {@code shareit.item.detail-reader=single-query}
+ * once {@code ItemDetailQueryTest} has passed against the target database.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemDetailReader.PROPERTY, havingValue = "single-query")
+public class SingleQueryItemDetailReader implements ItemDetailReader {
+    private static final TypeReference<List<CommentDto>> COMMENTS = new TypeReference<>() {
+    };
+
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Optional<ItemInfoDto> read(Long id, Long userId) {
+        return itemRepository.findDetail(id, userId, LocalDateTime.now(), EMBEDDED_COMMENTS).map(this::mapToItemInfoDto);
+    }
+
+    private ItemInfoDto mapToItemInfoDto(ItemDetailView view) {
+        ItemInfoDto itemInfoDto = new ItemInfoDto(view.getId(), view.getName(), view.getDescription(),
+                view.getAvailable(), view.getOwner(), readComments(view.getComments()), view.getCommentCount(), null, null);
+        if (view.getLastBookingId() != null) {
+            itemInfoDto.setLastBooking(new BookingShortDto(view.getLastBookingId(), view.getId(), view.getLastBookerId()));
+        }
+        if (view.getNextBookingId() != null) {
+            itemInfoDto.setNextBooking(new BookingShortDto(view.getNextBookingId(), view.getId(), view.getNextBookerId()));
+        }
+        return itemInfoDto;
+    }
+
+    private List<CommentDto> readComments(String json) {
+        if (json == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return objectMapper.readValue(json, COMMENTS);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Comments of item are not valid JSON", exception);
+        }
+    }
+}
@@ -17,6 +17,7 @@ public class ItemInfoDto {
     private Boolean available;
     private Long owner;
     private List<CommentDto> comments;
+    private Long commentCount;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
 }
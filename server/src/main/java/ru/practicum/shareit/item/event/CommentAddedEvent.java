@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a comment is added to the item.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentAddedEvent {
+    private final Long itemId;
+}
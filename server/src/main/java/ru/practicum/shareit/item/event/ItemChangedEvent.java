@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Published by the item write paths. {@code previous} is null for a new item,
+ * {@code current} is null for a deleted one.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemChangedEvent {
+    private final ItemDto previous;
+    private final ItemDto current;
+}
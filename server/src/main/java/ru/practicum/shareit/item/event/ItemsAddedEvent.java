@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * Published once for items created together, in place of an {@link ItemChangedEvent} per item.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemsAddedEvent {
+    private final List<ItemDto> items;
+}
@@ -1,14 +1,39 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    /**
+     * The latest {@code size} comments of each item, newest first, with the number of all comments of the item.
+     */
+    @Query(value = "select ranked.id as \"id\", ranked.item_id as \"itemId\", ranked.text as \"text\", " +
+            "ranked.author_name as \"authorName\", ranked.created as \"created\", ranked.total as \"total\" " +
+            "from (select c.id, c.item_id, c.text, u.name as author_name, c.created, " +
+            "row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn, " +
+            "count(*) over (partition by c.item_id) as total " +
+            "from comments as c join users as u on u.id = c.author_id " +
+            "where c.item_id in ?1) as ranked " +
+            "where ranked.rn <= ?2 " +
+            "order by ranked.item_id, ranked.created desc, ranked.id desc", nativeQuery = true)
+    List<CommentView> findLatestByItemIdIn(Collection<Long> itemIds, int size);
 
-    List<Comment> findByItemIn(List<Item> items, Sort sort);
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a " +
+            "where c.item.id = ?1 " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findPage(Long itemId, Pageable page);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a " +
+            "where c.item.id = ?1 and (c.created < ?2 or c.created = ?2 and c.id < ?3) " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findPageAfter(Long itemId, LocalDateTime created, Long id, Pageable page);
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@link CommentRepository#findLatestByItemIdIn}.
+ */
+public interface CommentView {
+    Long getId();
+
+    Long getItemId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+    /**
+     * Number of all comments of the item.
+     */
+    Long getTotal();
+}
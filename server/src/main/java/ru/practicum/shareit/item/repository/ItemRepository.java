@@ -2,15 +2,22 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.detail.ItemDetailView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.model.User;
 
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select it from Item as it " +
@@ -21,9 +28,73 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "order by it.id")
     Page<Item> findText(String text, Pageable page);
 
+    @Query("select it from Item as it " +
+            "where " +
+            "(upper(it.name) like concat('%', upper(?1), '%') " +
+            "or upper(it.description) like concat('%', upper(?1), '%')) " +
+            "and it.available = true " +
+            "and it.id > ?2 " +
+            "order by it.id")
+    Slice<Item> findTextAfter(String text, Long afterId, Pageable page);
+
+    @Query(value = "select it.id, it.name, it.description, it.available, it.owner_id, it.request_id " +
+            "from items as it " +
+            "where it.available = true " +
+            "and it.search_vector @@ plainto_tsquery('russian', ?1) " +
+            "order by ts_rank(it.search_vector, plainto_tsquery('russian', ?1)) desc, it.id", nativeQuery = true)
+    List<Item> findFullText(String text, Pageable page);
+
+    @Query(value = "select it.id, it.name, it.description, it.available, it.owner_id, it.request_id " +
+            "from items as it " +
+            "where it.available = true " +
+            "and it.search_vector @@ plainto_tsquery('russian', ?1) " +
+            "and it.id > ?2 " +
+            "order by it.id", nativeQuery = true)
+    Slice<Item> findFullTextAfter(String text, Long afterId, Pageable page);
+
+    /**
+     * The item with its last and next approved bookings, filled in only when {@code userId} owns it,
+     * its latest {@code comments} comments with author names aggregated into JSON and the number of all its comments.
+     * PostgreSQL only.
+     */
+    @Query(value = "select it.id as \"id\", it.name as \"name\", it.description as \"description\", " +
+            "it.available as \"available\", it.owner_id as \"owner\", " +
+            "lb.id as \"lastBookingId\", lb.booker_id as \"lastBookerId\", " +
+            "nb.id as \"nextBookingId\", nb.booker_id as \"nextBookerId\", " +
+            "cm.comments as \"comments\", cc.total as \"commentCount\" " +
+            "from items as it " +
+            "left join lateral (select b.id, b.booker_id from bookings as b " +
+            "where b.item_id = it.id and it.owner_id = ?2 and b.status = 'APPROVED' and b.start_time <= ?3 " +
+            "order by b.end_time desc limit 1) as lb on true " +
+            "left join lateral (select b.id, b.booker_id from bookings as b " +
+            "where b.item_id = it.id and it.owner_id = ?2 and b.status = 'APPROVED' and b.start_time > ?3 " +
+            "order by b.start_time limit 1) as nb on true " +
+            "left join lateral (select cast(json_agg(json_build_object('id', l.id, 'text', l.text, " +
+            "'authorName', l.name, 'created', l.created) order by l.created desc, l.id desc) as text) as comments " +
+            "from (select c.id, c.text, u.name, c.created from comments as c join users as u on u.id = c.author_id " +
+            "where c.item_id = it.id order by c.created desc, c.id desc limit ?4) as l) as cm on true " +
+            "left join lateral (select count(*) as total from comments as c where c.item_id = it.id) as cc on true " +
+            "where it.id = ?1", nativeQuery = true)
+    Optional<ItemDetailView> findDetail(Long id, Long userId, LocalDateTime time, int comments);
+
     List<Item> findAllByRequestOrderByRequestCreatedDesc(Request request);
 
     Page<Item> findAllByOwnerOrderById(User user, Pageable page);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item it where it.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    /**
+     * Locks in id order, so that concurrent callers locking overlapping sets do not deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item it where it.id in ?1 order by it.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> ids);
+
+    List<Item> findAllByOwnerAndIdGreaterThanOrderById(User user, Long id, Pageable page);
+
     List<Item> findByRequestIn(List<Request> requests, Sort sort);
-}
\ No newline at end of file
+
+    List<Item> findAllByAvailableTrueAndIdGreaterThanOrderById(Long id, Pageable page);
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * PostgreSQL full-text search over the generated {@code items.search_vector} column
+ * created by {@code schema-postgresql.sql}. Pages are ordered by rank, keyset slices by id.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.findFullText(text, page);
+    }
+
+    @Override
+    public Slice<Item> searchAfter(String text, long afterId, int size) {
+        return itemRepository.findFullTextAfter(text, afterId, PageRequest.of(0, size));
+    }
+
+    @Override
+    public boolean mayMatch(String text, ItemDto item) {
+        // stemming lets a query match words that do not contain it
+        return true;
+    }
+}
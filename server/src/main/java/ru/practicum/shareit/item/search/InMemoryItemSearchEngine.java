@@ -0,0 +1,219 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Base of the in-process search engines. Keeps the upper-cased name and description of every
+ * available item and a postings list per term. Subclasses decide which terms a text produces
+ * and which items are candidates for a query; candidates are always checked against the full
+ * text, so results are the same as {@link ItemRepository#findText}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public abstract class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    protected final ItemRepository itemRepository;
+    protected final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    /**
+     * Keys of {@link #postings} by their substrings.
+     */
+    protected final TermDictionary vocabulary = new TermDictionary();
+    protected final NavigableMap<Long, Document> documents = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void load() {
+        long lastId = 0;
+        List<Item> chunk;
+        do {
+            chunk = itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderById(lastId,
+                    PageRequest.of(0, LOAD_CHUNK_SIZE));
+            for (Item item : chunk) {
+                put(item.getId(), item.getName(), item.getDescription());
+                lastId = item.getId();
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+        log.info("{} loaded with {} items", getClass().getSimpleName(), size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getPrevious() != null) {
+            remove(event.getPrevious().getId());
+        }
+        ItemDto current = event.getCurrent();
+        if (current != null && Boolean.TRUE.equals(current.getAvailable())) {
+            put(current.getId(), current.getName(), current.getDescription());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsAdded(ItemsAddedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ItemDto item : event.getItems()) {
+                if (Boolean.TRUE.equals(item.getAvailable())) {
+                    putDocument(item.getId(), item.getName(), item.getDescription());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return findItems(findIds(text, page));
+    }
+
+    @Override
+    public Slice<Item> searchAfter(String text, long afterId, int size) {
+        List<Long> ids = findIds(text, afterId, 0, size + 1);
+        boolean hasNext = ids.size() > size;
+        return new SliceImpl<>(findItems(hasNext ? ids.subList(0, size) : ids), PageRequest.of(0, size), hasNext);
+    }
+
+    private List<Item> findItems(List<Long> ids) {
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .filter(items::containsKey)
+                .map(items::get)
+                .collect(Collectors.toList());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Long> findIds(String text, Pageable page) {
+        return findIds(text, 0, page.getOffset(), page.getPageSize());
+    }
+
+    List<Long> findIds(String text, long afterId, long offset, int limit) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            return candidates(query).tailSet(afterId, false).stream()
+                    .filter(id -> documents.get(id).contains(query))
+                    .skip(offset)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void put(Long id, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            putDocument(id, name, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Terms under which the document is posted.
+     */
+    protected abstract Set<String> terms(Document document);
+
+    /**
+     * Superset of the ids of documents containing the query, in id order. Called under the read lock.
+     */
+    protected abstract NavigableSet<Long> candidates(String query);
+
+    protected NavigableSet<Long> intersect(List<NavigableSet<Long>> sets) {
+        if (sets.isEmpty()) {
+            return documents.navigableKeySet();
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        NavigableSet<Long> result = new TreeSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            result.retainAll(sets.get(i));
+        }
+        return result;
+    }
+
+    private void putDocument(Long id, String name, String description) {
+        Document document = new Document(normalize(name), normalize(description));
+        removeDocument(id);
+        documents.put(id, document);
+        for (String term : terms(document)) {
+            postings.computeIfAbsent(term, t -> {
+                vocabulary.add(t);
+                return new TreeSet<>();
+            }).add(id);
+        }
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : terms(document)) {
+            NavigableSet<Long> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                vocabulary.remove(term);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    protected static class Document {
+        final String name;
+        final String description;
+
+        Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+}
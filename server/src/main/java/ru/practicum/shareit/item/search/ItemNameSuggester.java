@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Completions of available item names, most frequent first, kept in a {@link ItemNameTrie}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemNameSuggester {
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemNameTrie trie = new ItemNameTrie();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void load() {
+        long lastId = 0;
+        List<Item> chunk;
+        do {
+            chunk = itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderById(lastId,
+                    PageRequest.of(0, LOAD_CHUNK_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Item item : chunk) {
+                    trie.add(item.getName());
+                    lastId = item.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+        log.info("Item name suggestions loaded with {} names", size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        ItemDto previous = event.getPrevious();
+        ItemDto current = event.getCurrent();
+        lock.writeLock().lock();
+        try {
+            if (isSuggested(previous)) {
+                trie.remove(previous.getName());
+            }
+            if (isSuggested(current)) {
+                trie.add(current.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsAdded(ItemsAddedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ItemDto item : event.getItems()) {
+                if (isSuggested(item)) {
+                    trie.add(item.getName());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        lock.readLock().lock();
+        try {
+            return trie.complete(prefix, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isSuggested(ItemDto item) {
+        return item != null && item.getName() != null && Boolean.TRUE.equals(item.getAvailable());
+    }
+}
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+
+/**
+ * Radix tree of upper-cased item names with the number of items per name. Every node keeps the
+ * largest count in its subtree, so the most frequent completions of a prefix are found best first
+ * without walking the whole subtree. Not thread-safe.
+ */
+class ItemNameTrie {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+    private int size;
+
+    void add(String name) {
+        add(root, normalize(name), 0, name);
+    }
+
+    void remove(String name) {
+        remove(root, normalize(name), 0);
+    }
+
+    /**
+     * Names starting with the prefix, ignoring case, by descending count and then alphabetically.
+     */
+    List<String> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        Node node = root;
+        StringBuilder path = new StringBuilder();
+        int from = 0;
+        while (from < key.length()) {
+            int i = Arrays.binarySearch(node.keys, key.charAt(from));
+            if (i < 0) {
+                return Collections.emptyList();
+            }
+            node = node.children[i];
+            int common = commonPrefix(node.label, key, from);
+            if (common < node.label.length() && from + common < key.length()) {
+                return Collections.emptyList();
+            }
+            path.append(node.label);
+            from += common;
+        }
+        return best(node, path.toString(), limit);
+    }
+
+    /**
+     * Number of distinct names.
+     */
+    int size() {
+        return size;
+    }
+
+    private List<String> best(Node start, String path, int limit) {
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(start, path, start.max, false));
+        List<String> result = new ArrayList<>();
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (candidate.word) {
+                result.add(node.word);
+                continue;
+            }
+            if (node.count > 0) {
+                queue.add(new Candidate(node, candidate.path, node.count, true));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child, candidate.path + child.label, child.max, false));
+            }
+        }
+        return result;
+    }
+
+    private void add(Node node, String key, int from, String word) {
+        if (from == key.length()) {
+            if (node.count++ == 0) {
+                size++;
+            }
+            node.word = word;
+        } else {
+            int i = Arrays.binarySearch(node.keys, key.charAt(from));
+            if (i < 0) {
+                Node leaf = new Node(key.substring(from));
+                leaf.word = word;
+                leaf.count = 1;
+                leaf.max = 1;
+                node.insert(-i - 1, leaf);
+                size++;
+            } else {
+                Node child = node.children[i];
+                int common = commonPrefix(child.label, key, from);
+                if (common < child.label.length()) {
+                    child = node.split(i, common);
+                }
+                add(child, key, from + common, word);
+            }
+        }
+        node.updateMax();
+    }
+
+    private void remove(Node node, String key, int from) {
+        if (from == key.length()) {
+            if (node.count > 0 && --node.count == 0) {
+                node.word = null;
+                size--;
+            }
+        } else {
+            int i = Arrays.binarySearch(node.keys, key.charAt(from));
+            if (i < 0) {
+                return;
+            }
+            Node child = node.children[i];
+            int common = commonPrefix(child.label, key, from);
+            if (common < child.label.length()) {
+                return;
+            }
+            remove(child, key, from + common);
+            if (child.count == 0 && child.children.length == 0) {
+                node.delete(i);
+            } else if (child.count == 0 && child.children.length == 1) {
+                Node grandchild = child.children[0];
+                grandchild.label = child.label + grandchild.label;
+                node.children[i] = grandchild;
+            }
+        }
+        node.updateMax();
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int length = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    private static class Node {
+        String label;
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        String word;
+        int count;
+        int max;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void insert(int index, Node child) {
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = child.label.charAt(0);
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void delete(int index) {
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Puts a node holding the first {@code length} characters of the child's label between this node and the child.
+         */
+        Node split(int index, int length) {
+            Node child = children[index];
+            Node middle = new Node(child.label.substring(0, length));
+            child.label = child.label.substring(length);
+            middle.keys = new char[]{child.label.charAt(0)};
+            middle.children = new Node[]{child};
+            middle.max = child.max;
+            children[index] = middle;
+            return middle;
+        }
+
+        void updateMax() {
+            int result = count;
+            for (Node child : children) {
+                result = Math.max(result, child.max);
+            }
+            max = result;
+        }
+    }
+
+    private static class Candidate implements Comparable<Candidate> {
+        final Node node;
+        final String path;
+        final int priority;
+        final boolean word;
+
+        Candidate(Node node, String path, int priority, boolean word) {
+            this.node = node;
+            this.path = path;
+            this.priority = priority;
+            this.word = word;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            int byPath = path.compareTo(other.path);
+            if (byPath != 0) {
+                return byPath;
+            }
+            return Boolean.compare(other.word, word);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Search results keyed by upper-cased text and page. An item change evicts only the queries that
+ * could find the item before or after the change, and runs after the in-memory indexes are updated.
+ * Statistics are published as the {@code cache.*} meters with the tag {@code cache=itemSearch}.
+ */
+@Component
+public class ItemSearchCache {
+    static final String NAME = "itemSearch";
+
+    private final ItemSearchEngine itemSearchEngine;
+    private final Cache<Key, Object> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchEngine itemSearchEngine,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.search.cache.expire-after-write:60s}") Duration expireAfterWrite) {
+        this.itemSearchEngine = itemSearchEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Cached result for the text and page, computed by the loader on a miss.
+     * The page is any value object that identifies the requested part of the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String text, Object page, Supplier<T> loader) {
+        Key key = new Key(text.toUpperCase(Locale.ROOT), page);
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long loadedAt = generation.get();
+        T result = loader.get();
+        cache.put(key, result);
+        if (generation.get() != loadedAt) {
+            // an item changed while loading, the result may already be stale
+            cache.invalidate(key);
+        }
+        return result;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        ItemDto previous = event.getPrevious();
+        ItemDto current = event.getCurrent();
+        if (previous != null && current != null
+                && Objects.equals(previous.getName(), current.getName())
+                && Objects.equals(previous.getDescription(), current.getDescription())
+                && Objects.equals(previous.getAvailable(), current.getAvailable())) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> mayMatch(key.text, previous) || mayMatch(key.text, current));
+    }
+
+    /**
+     * Evicts the queries that could find any of the added items in one pass over the cached keys.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsAdded(ItemsAddedEvent event) {
+        List<ItemDto> items = event.getItems();
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> items.stream().anyMatch(item -> mayMatch(key.text, item)));
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private boolean mayMatch(String text, ItemDto item) {
+        return item != null && Boolean.TRUE.equals(item.getAvailable()) && itemSearchEngine.mayMatch(text, item);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String text;
+        private final Object page;
+    }
+}
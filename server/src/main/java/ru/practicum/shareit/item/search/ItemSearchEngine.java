@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Backend of {@code /items/search}, selected with the {@code shareit.search.engine} property.
+ */
+public interface ItemSearchEngine {
+    String PROPERTY = "shareit.search.engine";
+
+    List<Item> search(String text, Pageable page);
+
+    /**
+     * Matches with ids greater than {@code afterId}, in id order.
+     */
+    Slice<Item> searchAfter(String text, long afterId, int size);
+
+    /**
+     * Whether the item could be found by the text. Must not return false for an item the engine would find.
+     */
+    default boolean mayMatch(String text, ItemDto item) {
+        String query = text.toUpperCase(Locale.ROOT);
+        return item.getName() != null && item.getName().toUpperCase(Locale.ROOT).contains(query)
+                || item.getDescription() != null && item.getDescription().toUpperCase(Locale.ROOT).contains(query);
+    }
+}
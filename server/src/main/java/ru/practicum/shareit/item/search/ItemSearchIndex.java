@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the words of item names and descriptions.
+ * Query words are matched as substrings of indexed words, looked up in the {@link TermDictionary}, to collect candidates.
+ */
+@Component
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex extends InMemoryItemSearchEngine {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected Set<String> terms(Document document) {
+        Set<String> terms = tokenize(document.name);
+        terms.addAll(tokenize(document.description));
+        return terms;
+    }
+
+    @Override
+    protected NavigableSet<Long> candidates(String query) {
+        List<NavigableSet<Long>> matches = new ArrayList<>();
+        for (String token : tokenize(query)) {
+            NavigableSet<Long> ids = new TreeSet<>();
+            for (String term : vocabulary.containing(token)) {
+                ids.addAll(postings.get(term));
+            }
+            if (ids.isEmpty()) {
+                return Collections.emptyNavigableSet();
+            }
+            matches.add(ids);
+        }
+        return intersect(matches);
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : DELIMITER.split(text)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
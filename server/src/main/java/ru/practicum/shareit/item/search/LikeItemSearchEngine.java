@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Substring search with {@code ItemRepository.findText}. On PostgreSQL the {@code upper(...) like} predicates
+ * are served by the {@code pg_trgm} GIN indexes created by {@code schema-postgresql.sql}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "like")
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.findText(text, page).getContent();
+    }
+
+    @Override
+    public Slice<Item> searchAfter(String text, long afterId, int size) {
+        return itemRepository.findTextAfter(text, afterId, PageRequest.of(0, size));
+    }
+}
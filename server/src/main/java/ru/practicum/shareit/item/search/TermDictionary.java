@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Terms of an index by each of their substrings of up to {@link #GRAM} characters, so that the terms
+ * containing a text are found from the terms sharing its rarest trigram instead of by scanning all terms.
+ * Not thread-safe, guarded by the lock of the owning index.
+ */
+class TermDictionary {
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<String>> terms = new HashMap<>();
+
+    void add(String term) {
+        for (String gram : grams(term)) {
+            terms.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+    }
+
+    void remove(String term) {
+        for (String gram : grams(term)) {
+            Set<String> containing = terms.get(gram);
+            if (containing != null) {
+                containing.remove(term);
+                if (containing.isEmpty()) {
+                    terms.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Terms that contain the text.
+     */
+    Collection<String> containing(String text) {
+        if (text.length() <= GRAM) {
+            return Collections.unmodifiableSet(terms.getOrDefault(text, Collections.emptySet()));
+        }
+        Set<String> rarest = null;
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            Set<String> containing = terms.get(text.substring(i, i + GRAM));
+            if (containing == null) {
+                return Collections.emptySet();
+            }
+            if (rarest == null || containing.size() < rarest.size()) {
+                rarest = containing;
+            }
+        }
+        return rarest.stream()
+                .filter(term -> term.contains(text))
+                .collect(Collectors.toList());
+    }
+
+    int size() {
+        return terms.size();
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= term.length(); i++) {
+                grams.add(term.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+
+/**
+ * Trigram index over item names and descriptions, for substring search without scanning every item.
+ * A query of three or more characters is looked up by intersecting the postings of its trigrams;
+ * a shorter one by the union of the postings of trigrams that contain it. Fields shorter than a
+ * trigram are posted as a whole.
+ */
+@Component
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "trigram")
+public class TrigramItemSearchIndex extends InMemoryItemSearchEngine {
+    private static final int GRAM = 3;
+
+    public TrigramItemSearchIndex(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected Set<String> terms(Document document) {
+        Set<String> terms = new HashSet<>();
+        addGrams(document.name, terms);
+        addGrams(document.description, terms);
+        return terms;
+    }
+
+    @Override
+    protected NavigableSet<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            NavigableSet<Long> ids = new TreeSet<>();
+            for (String term : vocabulary.containing(query)) {
+                ids.addAll(postings.get(term));
+            }
+            return ids;
+        }
+        Set<String> grams = new HashSet<>();
+        addGrams(query, grams);
+        List<NavigableSet<Long>> matches = new ArrayList<>();
+        for (String gram : grams) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyNavigableSet();
+            }
+            matches.add(ids);
+        }
+        return intersect(matches);
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        if (text.isEmpty()) {
+            return;
+        }
+        if (text.length() < GRAM) {
+            grams.add(text);
+            return;
+        }
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+    }
+}
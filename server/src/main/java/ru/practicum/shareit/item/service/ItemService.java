@@ -1,23 +1,45 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utility.SliceDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemInfoDto getItemById(Long id, Long userId);
 
+    List<FreeIntervalDto> getItemAvailability(Long id, LocalDateTime from, LocalDateTime to);
+
     List<ItemInfoDto> getItemsByUserId(Long userId, Integer from, Integer size);
 
+    void streamItemsByUserId(Long userId, Consumer<? super ItemInfoDto> action);
+
     List<ItemDto> searchItems(String text, Integer from, Integer size);
 
+    SliceDto<ItemDto> searchItems(String text, String after, Integer size);
+
+    List<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    SliceDto<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end, String after, Integer size);
+
+    void streamSearchItems(String text, Consumer<? super ItemDto> action);
+
+    List<String> suggestItems(String prefix, Integer size);
+
     ItemDto addItem(Long userId, ItemDto itemDto);
 
+    List<Long> addItems(Long userId, List<ItemDto> itemDtos);
+
     CommentDto addComment(Long userId, Long itemId, CommentCreateDto commentDto);
 
+    SliceDto<CommentDto> getComments(Long itemId, String after, Integer size);
+
     ItemDto updateItem(Long userId, Long id, ItemDto itemDto);
 
     void deleteItem(Long id);
@@ -1,67 +1,98 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
-import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.booking.utility.BookingMapper;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.detail.ItemDetailCache;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentView;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.utility.ItemMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.Cursor;
+import ru.practicum.shareit.utility.SliceDto;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
 
-import static java.util.function.UnaryOperator.identity;
 import static java.util.stream.Collectors.*;
-import static org.springframework.data.domain.Sort.Direction.DESC;
+import static ru.practicum.shareit.utility.Constants.EMBEDDED_COMMENTS;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
     private final CommentRepository commentRepository;
+    private final ItemDetailCache itemDetailCache;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Transactional(readOnly = true)
     @Override
     public ItemInfoDto getItemById(Long id, Long userId) {
+        return itemDetailCache.get(id, userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Item with id=%d not found", id)));
+    }
+
+    /**
+     * Past periods cannot be booked, so {@code from} is moved up to the current time.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<FreeIntervalDto> getItemAvailability(Long id, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of period should be before its end");
+        }
         Item item = getItem(id);
-        ItemInfoDto itemInfoDto = ItemMapper.mapToItemInfoDto(item);
-        if (Objects.equals(item.getOwner().getId(), userId)) {
-            Booking last = bookingRepository.findLastBooking(item.getId());
-            Booking next = bookingRepository.findNextBooking(item.getId());
-            if (last != null) {
-                itemInfoDto.setLastBooking(BookingMapper.mapToBookingShortDto(last));
-            }
-            if (next != null) {
-                itemInfoDto.setNextBooking(BookingMapper.mapToBookingShortDto(next));
-            }
+        LocalDateTime currentTime = LocalDateTime.now();
+        if (!currentTime.isBefore(to)) {
+            return Collections.emptyList();
         }
-        List<CommentDto> comments = commentRepository.findAllByItemId(item.getId()).stream()
-                .map(ItemMapper::mapToCommentDto)
-                .collect(toList());
-        itemInfoDto.setComments(comments);
-        return itemInfoDto;
+        return bookingTimelineCache.get(item.getId()).free(from.isBefore(currentTime) ? currentTime : from, to);
     }
 
     @Transactional(readOnly = true)
@@ -70,60 +101,117 @@ public class ItemServiceImpl implements ItemService {
         User user = userService.getUser(userId);
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
         List<Item> items = itemRepository.findAllByOwnerOrderById(user, page).getContent();
+        return mapToItemInfoDto(items);
+    }
 
-        Map<Item, List<Comment>> comments = commentRepository.findByItemIn(items, Sort.by(DESC, "created"))
-                .stream()
-                .collect(groupingBy(Comment::getItem, toList()));
-
-        LocalDateTime currentTime = LocalDateTime.now();
-        Map<Item, Booking> lasts = bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemInOrderByEndDesc(
-                        currentTime, BookingStatus.APPROVED, items)
-                .stream()
-                .collect(toMap(Booking::getItem, identity(), (o, n) -> o));
+    @Transactional(readOnly = true)
+    @Override
+    public void streamItemsByUserId(Long userId, Consumer<? super ItemInfoDto> action) {
+        User user = userService.getUser(userId);
+        long lastId = 0;
+        List<Item> chunk;
+        do {
+            chunk = itemRepository.findAllByOwnerAndIdGreaterThanOrderById(user, lastId,
+                    PageRequest.of(0, STREAM_CHUNK_SIZE));
+            mapToItemInfoDto(chunk).forEach(action);
+            if (!chunk.isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+            entityManager.clear();
+        } while (chunk.size() == STREAM_CHUNK_SIZE);
+    }
 
-        Map<Item, Booking> following = bookingRepository.findFirstByStartAfterAndStatusEqualsAndItemInOrderByStart(
-                        currentTime, BookingStatus.APPROVED, items)
-                .stream()
-                .collect(toMap(Booking::getItem, identity(), (o, n) -> o));
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> searchItems(String text, Integer from, Integer size) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
+        return itemSearchCache.get(text, page, () -> itemSearchEngine.search(text, page).stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toUnmodifiableList()));
+    }
 
-        List<ItemInfoDto> itemsInfoDto = new ArrayList<>();
-        for (Item item : items) {
-            ItemInfoDto itemDto = ItemMapper.mapToItemInfoDto(item);
-            itemDto.setComments(comments.getOrDefault(item, Collections.emptyList())
-                    .stream()
-                    .map(ItemMapper::mapToCommentDto)
-                    .collect(toList()));
+    @Transactional(readOnly = true)
+    @Override
+    public SliceDto<ItemDto> searchItems(String text, String after, Integer size) {
+        if (text.isBlank()) {
+            return new SliceDto<>(Collections.emptyList(), null);
+        }
+        long afterId = after.isBlank() ? 0 : Cursor.decodeLong(after);
+        return itemSearchCache.get(text, List.of(afterId, size), () -> {
+            Slice<Item> items = itemSearchEngine.searchAfter(text, afterId, size);
+            List<ItemDto> content = items.map(ItemMapper::mapToItemDto).getContent();
+            String next = items.hasNext() ? Cursor.encode(content.get(content.size() - 1).getId()) : null;
+            return new SliceDto<>(content, next);
+        });
+    }
 
-            if (lasts.containsKey(item)) {
-                if (lasts.get(item) != null) {
-                    Booking last = lasts.get(item);
-                    BookingShortDto bookingShortDtoLast = BookingMapper.mapToBookingShortDto(last);
-                    itemDto.setLastBooking(bookingShortDtoLast);
-                }
-            }
+    /**
+     * Past periods cannot be booked, so {@code start} is moved up to the current time.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start of period should be before its end");
+        }
+        LocalDateTime currentTime = LocalDateTime.now();
+        if (text.isBlank() || !currentTime.isBefore(end)) {
+            return Collections.emptyList();
+        }
+        LongPredicate free = bookingAvailabilityIndex.freeDuring(start.isBefore(currentTime) ? currentTime : start, end);
+        return searchFreeItems(text, free, 0, from, size).stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
 
-            if (following.containsKey(item)) {
-                if (following.get(item) != null) {
-                    Booking next = following.get(item);
-                    BookingShortDto bookingShortDtoNext = BookingMapper.mapToBookingShortDto(next);
-                    itemDto.setNextBooking(bookingShortDtoNext);
-                }
-            }
-            itemsInfoDto.add(itemDto);
+    @Transactional(readOnly = true)
+    @Override
+    public SliceDto<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end, String after, Integer size) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start of period should be before its end");
         }
-        return itemsInfoDto;
+        long afterId = after.isBlank() ? 0 : Cursor.decodeLong(after);
+        LocalDateTime currentTime = LocalDateTime.now();
+        if (text.isBlank() || !currentTime.isBefore(end)) {
+            return new SliceDto<>(Collections.emptyList(), null);
+        }
+        LongPredicate free = bookingAvailabilityIndex.freeDuring(start.isBefore(currentTime) ? currentTime : start, end);
+        List<Item> items = searchFreeItems(text, free, afterId, 0, size + 1);
+        boolean hasNext = items.size() > size;
+        List<ItemDto> content = (hasNext ? items.subList(0, size) : items).stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+        String next = hasNext ? Cursor.encode(content.get(content.size() - 1).getId()) : null;
+        return new SliceDto<>(content, next);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> searchItems(String text, Integer from, Integer size) {
+    public void streamSearchItems(String text, Consumer<? super ItemDto> action) {
         if (text.isBlank()) {
+            return;
+        }
+        long lastId = 0;
+        Slice<Item> chunk;
+        do {
+            chunk = itemSearchEngine.searchAfter(text, lastId, STREAM_CHUNK_SIZE);
+            chunk.map(ItemMapper::mapToItemDto).forEach(action);
+            if (chunk.hasContent()) {
+                lastId = chunk.getContent().get(chunk.getNumberOfElements() - 1).getId();
+            }
+            entityManager.clear();
+        } while (chunk.hasNext());
+    }
+
+    @Override
+    public List<String> suggestItems(String prefix, Integer size) {
+        if (prefix.isBlank()) {
             return Collections.emptyList();
         }
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        return itemRepository.findText(text, page)
-                .map(ItemMapper::mapToItemDto)
-                .getContent();
+        return itemNameSuggester.suggest(prefix, size);
     }
 
     @Transactional
@@ -136,7 +224,45 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(request);
         }
         item.setOwner(user);
-        return ItemMapper.mapToItemDto(itemRepository.save(item));
+        ItemDto created = ItemMapper.mapToItemDto(itemRepository.save(item));
+        eventPublisher.publishEvent(new ItemChangedEvent(null, created));
+        return created;
+    }
+
+    /**
+     * Either all items are created or, when one of them refers to an unknown request, none.
+     */
+    @Transactional
+    @Override
+    public List<Long> addItems(Long userId, List<ItemDto> itemDtos) {
+        User user = userService.getUser(userId);
+        if (itemDtos.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Request> requests = itemRequestRepository.findAllById(itemDtos.stream()
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(toSet())).stream()
+                .collect(toMap(Request::getId, Function.identity()));
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (ItemDto itemDto : itemDtos) {
+            Item item = ItemMapper.mapToItem(itemDto, user);
+            if (itemDto.getRequestId() != null) {
+                Request request = requests.get(itemDto.getRequestId());
+                if (request == null) {
+                    throw new NotFoundException(String.format("Request with id=%d not found", itemDto.getRequestId()));
+                }
+                item.setRequest(request);
+            }
+            items.add(item);
+        }
+        List<ItemDto> created = itemRepository.saveAll(items).stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+        eventPublisher.publishEvent(new ItemsAddedEvent(created));
+        return created.stream()
+                .map(ItemDto::getId)
+                .collect(toList());
     }
 
     @Transactional
@@ -144,14 +270,44 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto addComment(Long userId, Long itemId, CommentCreateDto commentDto) {
         User author = userService.getUser(userId);
         Item item = getItem(itemId);
-        if (bookingRepository.findCompletedBooking(item.getId(), author.getId()) != null) {
+        if (bookingRepository.findCompletedBooking(item.getId(), author.getId()) != null
+                || archivedBookingRepository.existsByItemIdAndBookerIdAndStatus(item.getId(), author.getId(), BookingStatus.APPROVED)) {
             Comment comment = ItemMapper.mapToComment(commentDto, author, item);
-            return ItemMapper.mapToCommentDto(commentRepository.save(comment));
+            CommentDto created = ItemMapper.mapToCommentDto(commentRepository.save(comment));
+            eventPublisher.publishEvent(new CommentAddedEvent(item.getId()));
+            return created;
         }
         throw new IllegalArgumentException(
                 String.format("Booking with userId=%d and ItemId=%d not found", userId, itemId));
     }
 
+    /**
+     * Comments newest first. The cursor holds the creation time and id of the last comment of the previous slice.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public SliceDto<CommentDto> getComments(Long itemId, String after, Integer size) {
+        Item item = getItem(itemId);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<CommentDto> comments;
+        if (after.isBlank()) {
+            comments = commentRepository.findPage(item.getId(), page);
+        } else {
+            String[] key = Cursor.decode(after, 2);
+            try {
+                comments = commentRepository.findPageAfter(item.getId(), LocalDateTime.parse(key[0]),
+                        Long.parseLong(key[1]), page);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+        if (comments.size() <= size) {
+            return new SliceDto<>(comments, null);
+        }
+        CommentDto last = comments.get(size - 1);
+        return new SliceDto<>(new ArrayList<>(comments.subList(0, size)), Cursor.encode(last.getCreated(), last.getId()));
+    }
+
     @Transactional
     @Override
     public ItemDto updateItem(Long userId, Long id, ItemDto itemDto) {
@@ -159,6 +315,7 @@ public class ItemServiceImpl implements ItemService {
         if (!Objects.equals(userId, item.getOwner().getId())) {
             throw new NotFoundException(String.format("Item with userId=%d not found", userId));
         }
+        ItemDto previous = ItemMapper.mapToItemDto(item);
         if (StringUtils.hasText(itemDto.getName()) && !itemDto.getName().equals(item.getName())) {
             item.setName(itemDto.getName());
         }
@@ -168,13 +325,82 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null && itemDto.getAvailable() != item.getAvailable()) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.mapToItemDto(item);
+        ItemDto updated = ItemMapper.mapToItemDto(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(previous, updated));
+        return updated;
     }
 
+    @Transactional
     @Override
     public void deleteItem(Long id) {
         Item item = getItem(id);
+        ItemDto previous = ItemMapper.mapToItemDto(item);
         itemRepository.delete(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(previous, null));
+    }
+
+    private List<ItemInfoDto> mapToItemInfoDto(List<Item> items) {
+        LocalDateTime currentTime = LocalDateTime.now();
+        Map<Long, List<CommentView>> comments = new HashMap<>();
+        Map<Long, Booking> lasts = new HashMap<>();
+        Map<Long, Booking> following = new HashMap<>();
+        if (!items.isEmpty()) {
+            List<Long> ids = items.stream().map(Item::getId).collect(toList());
+            comments = commentRepository.findLatestByItemIdIn(ids, EMBEDDED_COMMENTS).stream()
+                    .collect(groupingBy(CommentView::getItemId, toList()));
+            for (Booking booking : bookingRepository.findLastAndNextBookings(ids, currentTime)) {
+                (booking.getStart().isAfter(currentTime) ? following : lasts).put(booking.getItem().getId(), booking);
+            }
+        }
+
+        List<ItemInfoDto> itemsInfoDto = new ArrayList<>();
+        for (Item item : items) {
+            ItemInfoDto itemDto = ItemMapper.mapToItemInfoDto(item);
+            List<CommentView> latest = comments.getOrDefault(item.getId(), Collections.emptyList());
+            itemDto.setComments(latest.stream()
+                    .map(ItemMapper::mapToCommentDto)
+                    .collect(toList()));
+            itemDto.setCommentCount(latest.isEmpty() ? 0L : latest.get(0).getTotal());
+
+            Booking last = lasts.get(item.getId());
+            if (last != null) {
+                itemDto.setLastBooking(BookingMapper.mapToBookingShortDto(last));
+            }
+            Booking next = following.get(item.getId());
+            if (next != null) {
+                itemDto.setNextBooking(BookingMapper.mapToBookingShortDto(next));
+            }
+            itemsInfoDto.add(itemDto);
+        }
+        return itemsInfoDto;
+    }
+
+    /**
+     * Text matches with ids greater than {@code afterId} that pass the filter, read from the search engine in chunks.
+     */
+    private List<Item> searchFreeItems(String text, LongPredicate free, long afterId, int skip, int limit) {
+        List<Item> items = new ArrayList<>();
+        int skipped = 0;
+        long lastId = afterId;
+        Slice<Item> chunk;
+        do {
+            chunk = itemSearchEngine.searchAfter(text, lastId, STREAM_CHUNK_SIZE);
+            for (Item item : chunk) {
+                lastId = item.getId();
+                if (!free.test(lastId)) {
+                    continue;
+                }
+                if (skipped < skip) {
+                    skipped++;
+                } else {
+                    items.add(item);
+                    if (items.size() == limit) {
+                        return items;
+                    }
+                }
+            }
+        } while (chunk.hasNext());
+        return items;
     }
 
     private Item getItem(Long id) {
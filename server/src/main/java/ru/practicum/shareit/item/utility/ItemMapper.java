@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentView;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -42,6 +43,7 @@ public class ItemMapper {
                 item.getOwner().getId(),
                 null,
                 null,
+                null,
                 null
         );
     }
@@ -63,4 +65,13 @@ public class ItemMapper {
                 comment.getCreated()
         );
     }
+
+    public CommentDto mapToCommentDto(CommentView comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated()
+        );
+    }
 }
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.NdjsonWriter;
 
 import java.util.List;
 
@@ -12,6 +17,7 @@ import java.util.List;
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}")
     public UserDto getUserById(@PathVariable Long id) {
@@ -23,6 +29,11 @@ public class UserController {
         return userService.getUsers();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return NdjsonWriter.response(objectMapper, userService::streamUsers);
+    }
+
     @PostMapping
     public UserDto addUser(@RequestBody UserDto userDto) {
         return userService.addUser(userDto);
@@ -4,6 +4,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto getUserById(Long id);
@@ -12,6 +13,8 @@ public interface UserService {
 
     List<UserDto> getUsers();
 
+    void streamUsers(Consumer<? super UserDto> action);
+
     UserDto addUser(UserDto user);
 
     UserDto updateUser(UserDto user, Long id);
@@ -11,6 +11,8 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.utility.UserMapper;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +39,14 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapToUserDto(userRepository.findAll());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void streamUsers(Consumer<? super UserDto> action) {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            users.forEach(action);
+        }
+    }
+
     @Transactional
     @Override
     public UserDto addUser(UserDto userDto) {
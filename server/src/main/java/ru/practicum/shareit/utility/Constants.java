@@ -2,4 +2,8 @@ package ru.practicum.shareit.utility;
 
 public class Constants {
     public static final String USER_HEADER = "X-Sharer-User-Id";
+    /**
+     * Number of the latest comments embedded into item views, the rest are paged through {@code /items/{id}/comments}.
+     */
+    public static final int EMBEDDED_COMMENTS = 10;
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.utility;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes every accepted value as one line of JSON, so a listing can be sent while it is read.
+ */
+public class NdjsonWriter implements Consumer<Object> {
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectMapper mapper;
+    private final OutputStream out;
+
+    public NdjsonWriter(ObjectMapper mapper, OutputStream out) {
+        this.mapper = mapper;
+        this.out = out;
+    }
+
+    /**
+     * {@code application/x-ndjson} response whose body is written by the producer.
+     */
+    public static ResponseEntity<StreamingResponseBody> response(ObjectMapper mapper, Consumer<NdjsonWriter> producer) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    try {
+                        producer.accept(new NdjsonWriter(mapper, out));
+                    } catch (UncheckedIOException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    public void accept(Object value) {
+        try {
+            out.write(mapper.writeValueAsBytes(value));
+            out.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
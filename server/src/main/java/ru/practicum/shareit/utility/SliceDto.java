@@ -0,0 +1,19 @@
+package ru.practicum.shareit.utility;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Page of a keyset-paginated listing. {@code next} is the cursor of the following page,
+ * null on the last one.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Generated
+public class SliceDto<T> {
+    private List<T> content;
+    private String next;
+}
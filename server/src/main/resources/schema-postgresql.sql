@@ -0,0 +1,53 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+    GENERATED ALWAYS AS (to_tsvector('russian', name || ' ' || description)) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_items_search_vector ON items USING GIN (search_vector);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING GIN (upper(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING GIN (upper(description) gin_trgm_ops);
+
+DROP TABLE bookings;
+
+CREATE TABLE bookings (
+     id BIGINT NOT NULL,
+     start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+     end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+     item_id BIGINT NOT NULL,
+     booker_id BIGINT NOT NULL,
+     owner_id BIGINT NOT NULL,
+     status VARCHAR(10),
+     version BIGINT DEFAULT 0 NOT NULL,
+     CONSTRAINT pk_booking PRIMARY KEY (id, start_time),
+     CONSTRAINT fk_item_booking
+         FOREIGN KEY (item_id)
+             REFERENCES items (id)
+                ON DELETE CASCADE,
+     CONSTRAINT fk_user_booking
+         FOREIGN KEY (booker_id)
+             REFERENCES users (id)
+                ON DELETE CASCADE,
+     CONSTRAINT fk_owner_booking
+         FOREIGN KEY (owner_id)
+             REFERENCES users (id)
+                ON DELETE CASCADE
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings_default ADD CONSTRAINT ex_bookings_default_item_approved_period
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status = 'APPROVED');
+
+CREATE INDEX ix_bookings_item_status_start ON bookings (item_id, status, start_time);
+
+CREATE INDEX ix_bookings_booker_start ON bookings (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX ix_bookings_owner_start ON bookings (owner_id, start_time DESC, id DESC);
+
+CREATE INDEX ix_bookings_owner_status_start ON bookings (owner_id, status, start_time DESC, id DESC);
+
+CREATE INDEX ix_bookings_end ON bookings (end_time);
@@ -1,6 +1,9 @@
+DROP TABLE IF EXISTS bookings_archive;
 DROP TABLE IF EXISTS bookings;
+DROP SEQUENCE IF EXISTS bookings_id_seq;
 DROP TABLE IF EXISTS comments;
 DROP TABLE IF EXISTS items;
+DROP SEQUENCE IF EXISTS items_id_seq;
 DROP TABLE IF EXISTS requests;
 DROP TABLE IF EXISTS users;
 
@@ -24,8 +27,10 @@ CREATE TABLE IF NOT EXISTS requests (
                 ON DELETE CASCADE
 );
 
+CREATE SEQUENCE IF NOT EXISTS items_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-     id BIGINT GENERATED ALWAYS AS IDENTITY NOT NULL,
+     id BIGINT NOT NULL,
      name VARCHAR(255) NOT NULL,
      description VARCHAR(2000) NOT NULL,
      available BOOLEAN NOT NULL,
@@ -59,13 +64,19 @@ CREATE TABLE IF NOT EXISTS comments (
                 ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings (
-     id BIGINT GENERATED ALWAYS AS IDENTITY NOT NULL,
+     id BIGINT NOT NULL,
      start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
      end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
      item_id BIGINT NOT NULL,
      booker_id BIGINT NOT NULL,
+     owner_id BIGINT NOT NULL,
      status VARCHAR(10),
+     version BIGINT DEFAULT 0 NOT NULL,
      CONSTRAINT pk_booking PRIMARY KEY (id),
      CONSTRAINT fk_item_booking
          FOREIGN KEY (item_id)
@@ -73,6 +84,49 @@ CREATE TABLE IF NOT EXISTS bookings (
                 ON DELETE CASCADE,
      CONSTRAINT fk_user_booking
          FOREIGN KEY (booker_id)
+             REFERENCES users (id)
+                ON DELETE CASCADE,
+     CONSTRAINT fk_owner_booking
+         FOREIGN KEY (owner_id)
              REFERENCES users (id)
                 ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_time);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_start ON bookings (owner_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_status_start ON bookings (owner_id, status, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_end ON bookings (end_time);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+     id BIGINT NOT NULL,
+     start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+     end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+     item_id BIGINT NOT NULL,
+     booker_id BIGINT NOT NULL,
+     owner_id BIGINT NOT NULL,
+     status VARCHAR(10),
+     CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+     CONSTRAINT fk_item_booking_archive
+         FOREIGN KEY (item_id)
+             REFERENCES items (id)
+                ON DELETE CASCADE,
+     CONSTRAINT fk_user_booking_archive
+         FOREIGN KEY (booker_id)
+             REFERENCES users (id)
+                ON DELETE CASCADE,
+     CONSTRAINT fk_owner_booking_archive
+         FOREIGN KEY (owner_id)
+             REFERENCES users (id)
+                ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_start ON bookings_archive (owner_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_booker ON bookings_archive (item_id, booker_id);
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times the first page of past bookings while the history of the booker grows and is archived.
+ * Excluded from the build, run with {@code mvn -pl server test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@DirtiesContext
+class BookingArchiveBenchmarkTest {
+    private static final int RECENT_BOOKINGS = 500;
+    private static final int HISTORY_STEP = 50_000;
+    private static final int STEPS = 4;
+    private static final int WARMUP_RUNS = 100;
+    private static final int RUNS = 300;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingArchive bookingArchive;
+    private long nextId = 1_000_000;
+
+    @Test
+    void hotQueryLatencyStaysFlatAsHistoryGrows() {
+        jdbcTemplate.update("insert into users (name, email) values ('Owner', 'owner@mail.ru'), ('Booker', 'booker@mail.ru')");
+        Long ownerId = jdbcTemplate.queryForObject("select id from users where email = 'owner@mail.ru'", Long.class);
+        Long bookerId = jdbcTemplate.queryForObject("select id from users where email = 'booker@mail.ru'", Long.class);
+        Long itemId = nextId++;
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) " +
+                "values (?, 'Дрель', 'Новая дрель', true, ?)", itemId, ownerId);
+
+        LocalDateTime now = LocalDateTime.now();
+        insertBookings(itemId, bookerId, ownerId, now.minusDays(20), RECENT_BOOKINGS);
+        List<Long> medians = new ArrayList<>();
+        for (int step = 0; step <= STEPS; step++) {
+            if (step > 0) {
+                insertBookings(itemId, bookerId, ownerId, now.minusDays(60).minusMinutes((long) step * HISTORY_STEP), HISTORY_STEP);
+                assertEquals(HISTORY_STEP, bookingArchive.archiveEndedBefore(bookingArchive.archivedBefore()));
+            }
+            long median = medianNanos(bookerId);
+            medians.add(median);
+            log.info("Archived {} bookings, hot {}, first page of past bookings in {} us",
+                    step * HISTORY_STEP, RECENT_BOOKINGS, median / 1000);
+        }
+        assertTrue(medians.get(STEPS) < medians.get(0) * 3 + 1_000_000,
+                "Hot query latency grew with history: " + medians);
+    }
+
+    /**
+     * Bookings of one minute each, one after another, the last one ending at {@code end}.
+     */
+    private void insertBookings(Long itemId, Long bookerId, Long ownerId, LocalDateTime end, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = count; i > 0; i--) {
+            LocalDateTime start = end.minusMinutes(i);
+            rows.add(new Object[]{nextId++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(1)),
+                    itemId, bookerId, ownerId});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_time, end_time, item_id, booker_id, owner_id, status) " +
+                "values (?, ?, ?, ?, ?, ?, 'APPROVED')", rows);
+    }
+
+    private long medianNanos(Long bookerId) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            bookingService.getUserBookings(bookerId, BookingState.PAST, 0, PAGE_SIZE);
+        }
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            assertEquals(PAGE_SIZE, bookingService.getUserBookings(bookerId, BookingState.PAST, 0, PAGE_SIZE).size());
+            times[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+}
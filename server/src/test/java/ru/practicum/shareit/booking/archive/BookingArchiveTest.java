@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingParticipants;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiveTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private BookingArchive bookingArchive;
+
+    @BeforeEach
+    public void setUp() {
+        bookingArchive = new BookingArchive(bookingRepository, archivedBookingRepository, transactionTemplate,
+                Duration.ofDays(30), 2);
+    }
+
+    @Test
+    public void loadRecordsArchivedBookersAndOwners() {
+        when(archivedBookingRepository.findBookerIds())
+                .thenReturn(List.of(2L));
+        when(archivedBookingRepository.findOwnerIds())
+                .thenReturn(List.of(1L));
+        bookingArchive.load();
+
+        assertTrue(bookingArchive.mayHold(BookingFilter.builder().bookerId(2L).build()));
+        assertTrue(bookingArchive.mayHold(BookingFilter.builder().ownerId(1L).build()));
+        assertFalse(bookingArchive.mayHold(BookingFilter.builder().bookerId(1L).build()));
+        assertFalse(bookingArchive.mayHold(BookingFilter.builder().ownerId(2L).build()));
+        assertTrue(bookingArchive.mayHold(BookingFilter.builder().bookerId(Integer.MAX_VALUE + 1L).build()));
+    }
+
+    @Test
+    public void archiveRecordsParticipantsBeforeMovingBookings() {
+        LocalDateTime time = LocalDateTime.now().minusDays(30);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(bookingRepository.findIdsByEndBefore(eq(time), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(1L));
+        when(bookingRepository.findParticipantsByIdIn(List.of(1L)))
+                .thenReturn(List.of(participants(3L, 4L)));
+        when(bookingRepository.moveToArchive(List.of(1L)))
+                .thenReturn(1);
+
+        assertFalse(bookingArchive.mayHold(BookingFilter.builder().bookerId(3L).build()));
+        assertEquals(1, bookingArchive.archiveEndedBefore(time));
+
+        assertTrue(bookingArchive.mayHold(BookingFilter.builder().bookerId(3L).build()));
+        assertTrue(bookingArchive.mayHold(BookingFilter.builder().ownerId(4L).build()));
+        InOrder inOrder = inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).findParticipantsByIdIn(List.of(1L));
+        inOrder.verify(bookingRepository).moveToArchive(List.of(1L));
+    }
+
+    @Test
+    public void addOwnerRecordsNewOwner() {
+        bookingArchive.addOwner(5L);
+
+        assertTrue(bookingArchive.mayHold(BookingFilter.builder().ownerId(5L).build()));
+    }
+
+    private BookingParticipants participants(Long bookerId, Long ownerId) {
+        return new BookingParticipants() {
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+    private final LocalDateTime tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+    @InjectMocks
+    private BookingAvailabilityIndex index;
+
+    @Test
+    public void itemsWithoutBookedDaysAreFreeWithoutTimeline() {
+        when(bookingRepository.findAllByStatusAndEndAfterAndIdGreaterThanOrderById(eq(BookingStatus.APPROVED), any(),
+                eq(0L), any()))
+                .thenReturn(List.of(booking(1L, 1L, tomorrow.plusHours(10), tomorrow.plusDays(1).plusHours(10))));
+        index.load();
+
+        LongPredicate free = index.freeDuring(tomorrow.plusDays(3), tomorrow.plusDays(4));
+
+        assertTrue(free.test(1L));
+        assertTrue(free.test(2L));
+        assertEquals(2, index.size());
+        verifyNoInteractions(bookingTimelineCache);
+    }
+
+    @Test
+    public void itemsWithBookedDaysAreCheckedAgainstTimeline() {
+        Booking booking = booking(1L, 1L, tomorrow.plusHours(10), tomorrow.plusHours(12));
+        when(bookingRepository.findAllByStatusAndEndAfterAndIdGreaterThanOrderById(any(), any(), any(), any()))
+                .thenReturn(List.of(booking));
+        when(bookingTimelineCache.get(1L))
+                .thenReturn(BookingTimeline.of(1L, List.of(booking)));
+        index.load();
+
+        assertFalse(index.freeDuring(tomorrow.plusHours(11), tomorrow.plusHours(13)).test(1L));
+        assertTrue(index.freeDuring(tomorrow.plusHours(12), tomorrow.plusHours(13)).test(1L));
+        assertTrue(index.freeDuring(tomorrow, tomorrow.plusHours(13)).test(2L));
+    }
+
+    @Test
+    public void changesRebuildItemDays() {
+        when(bookingRepository.findAllByStatusAndEndAfterAndIdGreaterThanOrderById(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        index.load();
+        assertEquals(0, index.size());
+
+        when(bookingRepository.findAllByItemIdAndStatusAndEndAfter(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(booking(1L, 1L, tomorrow, tomorrow.plusDays(2))));
+        index.onBookingChanged(new BookingChangedEvent(1L));
+        assertEquals(2, index.size());
+
+        ItemDto item = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+        index.onItemChanged(new ItemChangedEvent(item, item));
+        assertEquals(2, index.size());
+        index.onItemChanged(new ItemChangedEvent(item, null));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void staleRebuildIsNotAppliedAfterNewerOne() throws InterruptedException {
+        when(bookingRepository.findAllByStatusAndEndAfterAndIdGreaterThanOrderById(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        index.load();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingRepository.findAllByItemIdAndStatusAndEndAfter(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenAnswer(invocation -> {
+                    reading.countDown();
+                    release.await();
+                    return List.of(booking(1L, 1L, tomorrow, tomorrow.plusDays(2)));
+                })
+                .thenReturn(Collections.emptyList());
+
+        Thread stale = new Thread(() -> index.onBookingChanged(new BookingChangedEvent(1L)));
+        stale.start();
+        reading.await();
+        Thread newer = new Thread(() -> index.onBookingChanged(new BookingChangedEvent(1L)));
+        newer.start();
+        verify(bookingRepository, after(100).times(1)).findAllByItemIdAndStatusAndEndAfter(eq(1L), any(), any());
+        release.countDown();
+        stale.join();
+        newer.join();
+
+        assertEquals(0, index.size());
+    }
+
+    private Booking booking(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(itemId);
+        User booker = new User();
+        booker.setId(7L);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+}
@@ -14,8 +14,12 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingUpdateResultDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.ExceptionApiHandler;
+import ru.practicum.shareit.utility.SliceDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -185,6 +189,48 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void getUserBookingsAfterCursor() throws Exception {
+        when(bookingService.getUserBookings(1L, BookingState.FUTURE, "MQ", 1))
+                .thenReturn(new SliceDto<>(List.of(bookingDto), "Mg"));
+
+        mockMvc.perform(
+                        get("/bookings?state=FUTURE&after=MQ&size=1")
+                                .header("X-Sharer-User-Id", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$.next", is("Mg")));
+    }
+
+    @Test
+    public void getBookingsByOwnerFirstSlice() throws Exception {
+        when(bookingService.getBookingsByOwner(1L, BookingState.ALL, "", 10))
+                .thenReturn(new SliceDto<>(List.of(bookingDto), null));
+
+        mockMvc.perform(
+                        get("/bookings/owner?after=")
+                                .header("X-Sharer-User-Id", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+
+    @Test
+    public void getBookingsByOwnerInvalidCursor() throws Exception {
+        when(bookingService.getBookingsByOwner(1L, BookingState.ALL, "x", 10))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: x"));
+
+        mockMvc.perform(
+                        get("/bookings/owner?after=x")
+                                .header("X-Sharer-User-Id", "1")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid cursor: x")));
+    }
+
     @Test
     public void addBooking() throws Exception {
         BookingCreateDto bookingCreateDto = new BookingCreateDto();
@@ -208,6 +254,28 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.name", is(bookingDto.getBooker().getName())));
     }
 
+    @Test
+    public void addBookingsInBatch() throws Exception {
+        BookingCreateDto bookingCreateDto = new BookingCreateDto();
+        bookingCreateDto.setStart(LocalDateTime.now().plusHours(1));
+        bookingCreateDto.setEnd(LocalDateTime.now().plusHours(2));
+        bookingCreateDto.setItemId(1L);
+        mapper.registerModule(new JavaTimeModule());
+        when(bookingService.addBookings(anyList(), anyLong()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(
+                        post("/bookings/batch")
+                                .header("X-Sharer-User-Id", 1L)
+                                .content(mapper.writeValueAsString(List.of(bookingCreateDto)))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].item.id", is(bookingDto.getItem().getId()), Long.class));
+    }
+
     @Test
     public void addBookingWithoutUserId() throws Exception {
         BookingCreateDto bookingCreateDto = new BookingCreateDto();
@@ -247,6 +315,24 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.name", is(bookingDto.getBooker().getName())));
     }
 
+    @Test
+    public void approveBookings() throws Exception {
+        when(bookingService.updateBookings(List.of(1L, 2L), 1L, false))
+                .thenReturn(List.of(new BookingUpdateResultDto(1L, BookingStatus.REJECTED, null),
+                        new BookingUpdateResultDto(2L, null, "Booking with id=2 not found")));
+
+        mockMvc.perform(
+                        patch("/bookings?approved=false")
+                                .header("X-Sharer-User-Id", "1")
+                                .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$.[0].status", is("REJECTED")))
+                .andExpect(jsonPath("$.[1].error", is("Booking with id=2 not found")));
+    }
+
     @Test
     public void approveBookingWithoutUserId() throws Exception {
         mockMvc.perform(
@@ -3,6 +3,9 @@ package ru.practicum.shareit.booking.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,14 +15,25 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.archive.BookingArchive;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -31,6 +45,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class BookingIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private BookingArchive bookingArchive;
     private final ObjectMapper mapper = new ObjectMapper();
     private UserDto userDto;
     private UserDto userDto2;
@@ -64,6 +82,11 @@ public class BookingIntegrationTest {
         mapper.registerModule(new JavaTimeModule());
     }
 
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().setStatisticsEnabled(false);
+    }
+
     @Test
     public void getBookingById() throws Exception {
         postUser(userDto).andExpect(status().isOk());
@@ -142,6 +165,78 @@ public class BookingIntegrationTest {
                 .andExpect(jsonPath("$.[0].status", is("APPROVED")));
     }
 
+    @Test
+    public void addBookingOverlappingApproved() throws Exception {
+        bookingCreateDto.setStart(bookingCreateDto.getStart().truncatedTo(ChronoUnit.SECONDS));
+        bookingCreateDto.setEnd(bookingCreateDto.getEnd().truncatedTo(ChronoUnit.SECONDS));
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+        approveBooking(1L, userDto.getId()).andExpect(status().isOk());
+
+        BookingCreateDto overlapping = new BookingCreateDto();
+        overlapping.setItemId(itemDto.getId());
+        overlapping.setStart(bookingCreateDto.getStart().plusMinutes(30));
+        overlapping.setEnd(bookingCreateDto.getEnd().plusMinutes(30));
+        postBooking(userDto2.getId(), overlapping).andExpect(status().isConflict());
+
+        BookingCreateDto following = new BookingCreateDto();
+        following.setItemId(itemDto.getId());
+        following.setStart(bookingCreateDto.getEnd());
+        following.setEnd(bookingCreateDto.getEnd().plusHours(1));
+        postBooking(userDto2.getId(), following).andExpect(status().isOk());
+    }
+
+    @Test
+    public void approveOverlappingBookingsConcurrently() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+        postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() ->
+                    approveBooking(1L, userDto.getId()).andReturn().getResponse().getStatus());
+            Future<Integer> second = executor.submit(() ->
+                    approveBooking(2L, userDto.getId()).andReturn().getResponse().getStatus());
+            assertEquals(Set.of(200, 409), Set.of(first.get(), second.get()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void approveBookingsInBulk() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+        postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+
+        mockMvc.perform(
+                        patch("/bookings?approved=true")
+                                .header("X-Sharer-User-Id", userDto.getId())
+                                .content(mapper.writeValueAsString(List.of(1L, 2L, 99L)))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$.[0].id", is(1)))
+                .andExpect(jsonPath("$.[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$.[1].id", is(2)))
+                .andExpect(jsonPath("$.[1].error", startsWith("Item with id=1 is already booked")))
+                .andExpect(jsonPath("$.[2].id", is(99)))
+                .andExpect(jsonPath("$.[2].error", is("Booking with id=99 not found")));
+
+        getOwnerBookings(userDto.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].status", is("WAITING")))
+                .andExpect(jsonPath("$.[1].status", is("APPROVED")));
+    }
+
     @Test
     public void approveBookingRejected() throws Exception {
         postUser(userDto).andExpect(status().isOk());
@@ -183,6 +278,168 @@ public class BookingIntegrationTest {
         );
     }
 
+    @Test
+    public void itemShowsBookingAfterApproval() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+        getItem(1L, userDto.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextBooking").isEmpty());
+
+        approveBooking(1L, userDto.getId()).andExpect(status().isOk());
+        getItem(1L, userDto.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextBooking.id", is(1L), Long.class))
+                .andExpect(jsonPath("$.nextBooking.bookerId", is(2L), Long.class));
+
+        mockMvc.perform(
+                        patch("/bookings/1?approved=false")
+                                .header("X-Sharer-User-Id", userDto.getId())
+                )
+                .andExpect(status().isOk());
+        getItem(1L, userDto.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextBooking").isEmpty());
+    }
+
+    @Test
+    public void addBookingsInBatch() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        BookingCreateDto unknownItem = new BookingCreateDto();
+        unknownItem.setStart(bookingCreateDto.getStart());
+        unknownItem.setEnd(bookingCreateDto.getEnd());
+        unknownItem.setItemId(99L);
+        postBookings(userDto2.getId(), List.of(bookingCreateDto, unknownItem))
+                .andExpect(status().isNotFound());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        postBookings(userDto2.getId(), List.of(bookingCreateDto, bookingCreateDto, bookingCreateDto))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$.[0].id", is(1)))
+                .andExpect(jsonPath("$.[2].id", is(3)))
+                .andExpect(jsonPath("$.[2].status", is("WAITING")));
+        assertEquals(3, statistics.getEntityInsertCount());
+        assertEquals(6, statistics.getPrepareStatementCount());
+
+        getUserBookings(userDto2.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    public void archivedBookingsStayVisible() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        BookingCreateDto old = new BookingCreateDto();
+        old.setStart(LocalDateTime.now().minusDays(60));
+        old.setEnd(LocalDateTime.now().minusDays(59));
+        old.setItemId(itemDto.getId());
+        postBooking(userDto2.getId(), old).andExpect(status().isOk());
+        postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+
+        assertEquals(1, bookingArchive.archiveEndedBefore(LocalDateTime.now().minusDays(30)));
+
+        getUserBookings(userDto2.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$.[0].id", is(2)))
+                .andExpect(jsonPath("$.[1].id", is(1)));
+        mockMvc.perform(
+                        get("/bookings/owner?state=PAST")
+                                .header("X-Sharer-User-Id", userDto.getId())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].item.name", is(itemDto.getName())));
+        mockMvc.perform(
+                        get("/bookings/1")
+                                .header("X-Sharer-User-Id", userDto2.getId())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("WAITING")));
+    }
+
+    @Test
+    public void listBookingsInOneStatement() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        for (int i = 0; i < 3; i++) {
+            postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        getUserBookings(userDto2.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$.[0].booker.name", is(userDto2.getName())))
+                .andExpect(jsonPath("$.[0].item.name", is(itemDto.getName())));
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        getOwnerBookings(userDto.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getBookingsWithCursor() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postUser(userDto2).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        for (int i = 0; i < 3; i++) {
+            bookingCreateDto.setStart(bookingCreateDto.getStart().plusDays(1));
+            bookingCreateDto.setEnd(bookingCreateDto.getEnd().plusDays(1));
+            postBooking(userDto2.getId(), bookingCreateDto).andExpect(status().isOk());
+        }
+
+        String response = mockMvc.perform(
+                        get("/bookings?after=&size=2")
+                                .header("X-Sharer-User-Id", userDto2.getId())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(3L), Long.class))
+                .andExpect(jsonPath("$.content[1].id", is(2L), Long.class))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String next = mapper.readTree(response).get("next").asText();
+
+        mockMvc.perform(
+                        get("/bookings/owner?after=" + next + "&size=2")
+                                .header("X-Sharer-User-Id", userDto.getId())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(1L), Long.class))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+
+    private ResultActions getItem(Long itemId, Long userId) throws Exception {
+        return mockMvc.perform(
+                get("/items/" + itemId)
+                        .header("X-Sharer-User-Id", userId)
+        );
+    }
+
+    private ResultActions approveBooking(Long bookingId, Long userId) throws Exception {
+        return mockMvc.perform(
+                patch("/bookings/" + bookingId + "?approved=true")
+                        .header("X-Sharer-User-Id", userId)
+        );
+    }
+
     private ResultActions postBooking(Long userId, BookingCreateDto bookingCreateDto) throws Exception {
         return mockMvc.perform(
                 post("/bookings")
@@ -192,6 +449,15 @@ public class BookingIntegrationTest {
         );
     }
 
+    private ResultActions postBookings(Long userId, List<BookingCreateDto> bookingCreateDtos) throws Exception {
+        return mockMvc.perform(
+                post("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(bookingCreateDtos))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+    }
+
     private ResultActions postUser(UserDto userDto) throws Exception {
         return mockMvc.perform(
                 post("/users")
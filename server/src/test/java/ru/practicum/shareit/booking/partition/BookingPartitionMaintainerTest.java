@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionMaintainerTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private BookingPartitionMaintainer maintainer;
+
+    @BeforeEach
+    public void setUp() {
+        maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionTemplate, 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ensurePartitionsCreatesMissingMonths() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("bookings_y2026m12"))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("bookings_y2027m01"))).thenReturn(false);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        assertThat(maintainer.ensurePartitions(YearMonth.of(2026, 12)), is(1));
+
+        LocalDateTime lower = LocalDateTime.of(2027, 1, 1, 0, 0);
+        LocalDateTime upper = LocalDateTime.of(2027, 2, 1, 0, 0);
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("lock table bookings_default in share row exclusive mode");
+        inOrder.verify(jdbcTemplate).execute("create table bookings_y2027m01 (like bookings including defaults)");
+        inOrder.verify(jdbcTemplate).execute("alter table bookings_y2027m01 add constraint " +
+                "ex_bookings_y2027m01_item_approved_period exclude using gist " +
+                "(item_id with =, tsrange(start_time, end_time) with &&) where (status = 'APPROVED')");
+        inOrder.verify(jdbcTemplate).update("insert into bookings_y2027m01 select * from bookings_default " +
+                "where start_time >= ? and start_time < ?", lower, upper);
+        inOrder.verify(jdbcTemplate).update("delete from bookings_default where start_time >= ? and start_time < ?", lower, upper);
+        inOrder.verify(jdbcTemplate).execute("alter table bookings attach partition bookings_y2027m01 " +
+                "for values from ('2027-01-01T00:00') to ('2027-02-01T00:00')");
+        verify(jdbcTemplate, never()).execute("create table bookings_y2026m12 (like bookings including defaults)");
+    }
+}
@@ -5,14 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +28,8 @@ class BookingRepositoryTest {
     private TestEntityManager em;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
     private User user;
     private Item item;
     private Booking bookingTemp;
@@ -49,6 +57,7 @@ class BookingRepositoryTest {
         bookingWaiting.setStatus(BookingStatus.WAITING);
         bookingWaiting.setBooker(user);
         bookingWaiting.setItem(item);
+        bookingWaiting.setOwnerId(item.getOwner().getId());
         bookingWaiting.setStart(LocalDateTime.now().plusMinutes(7));
         bookingWaiting.setEnd(LocalDateTime.now().plusHours(1));
 
@@ -56,6 +65,7 @@ class BookingRepositoryTest {
         bookingApprove.setStatus(BookingStatus.APPROVED);
         bookingApprove.setBooker(user);
         bookingApprove.setItem(item);
+        bookingApprove.setOwnerId(item.getOwner().getId());
         bookingApprove.setStart(LocalDateTime.now().plusMinutes(5));
         bookingApprove.setEnd(LocalDateTime.now().plusHours(1));
 
@@ -63,12 +73,14 @@ class BookingRepositoryTest {
         bookingRejected.setStatus(BookingStatus.REJECTED);
         bookingRejected.setBooker(user);
         bookingRejected.setItem(item);
+        bookingRejected.setOwnerId(item.getOwner().getId());
         bookingRejected.setStart(LocalDateTime.now().plusMinutes(3));
         bookingRejected.setEnd(LocalDateTime.now().plusHours(1));
 
         bookingTemp = new Booking();
         bookingTemp.setBooker(user);
         bookingTemp.setItem(item);
+        bookingTemp.setOwnerId(item.getOwner().getId());
         bookingTemp.setStart(LocalDateTime.now());
         bookingTemp.setEnd(LocalDateTime.now().plusHours(1));
 
@@ -90,6 +102,7 @@ class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setBooker(user);
         booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStart(LocalDateTime.now());
         booking.setEnd(LocalDateTime.now());
 
@@ -102,7 +115,8 @@ class BookingRepositoryTest {
     public void findLastBooking() {
         bookingApprove.setEnd(LocalDateTime.now().minusHours(1));
         bookingApprove.setStart(LocalDateTime.now().minusHours(2));
-        Booking actual = bookingRepository.findLastBooking(item.getId());
+        Booking actual = bookingRepository.findFirstByItemIdAndStatusAndStartLessThanEqualOrderByEndDesc(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now()).orElseThrow();
         assertEquals(bookingApprove.getId(), actual.getId());
     }
 
@@ -114,14 +128,41 @@ class BookingRepositoryTest {
         bookingTemp.setStatus(BookingStatus.WAITING);
         bookingTemp.setBooker(user);
         bookingTemp.setItem(item);
+        bookingTemp.setOwnerId(item.getOwner().getId());
         bookingTemp.setStart(LocalDateTime.now().plusHours(1));
         bookingTemp.setEnd(LocalDateTime.now().plusHours(2));
 
-        Booking actual = bookingRepository.findNextBooking(item.getId());
-        assertNull(actual);
+        List<Booking> actual = bookingRepository.findAllByItemIdAndStatusAndStartAfterOrderByStart(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now());
+        assertEquals(List.of(), actual);
         bookingTemp.setStatus(BookingStatus.APPROVED);
-        actual = bookingRepository.findNextBooking(item.getId());
-        assertEquals(bookingTemp.getId(), actual.getId());
+        actual = bookingRepository.findAllByItemIdAndStatusAndStartAfterOrderByStart(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now());
+        assertEquals(List.of(bookingTemp), actual);
+    }
+
+    @Test
+    public void findLastAndNextBookingsPerItem() {
+        Item other = new Item();
+        other.setName("Отвертка");
+        other.setDescription("Отвертка крестовая");
+        other.setAvailable(true);
+        other.setOwner(user);
+        em.persist(other);
+        LocalDateTime now = LocalDateTime.now();
+        approved(item, now.minusDays(3), now.minusDays(2));
+        Booking last = approved(item, now.minusDays(2), now.minusDays(1));
+        approved(item, now.plusDays(2), now.plusDays(3));
+        Booking otherNext = approved(other, now.plusDays(1), now.plusDays(2));
+        Booking otherLast = approved(other, now.minusHours(1), now.plusHours(1));
+        em.flush();
+        em.clear();
+
+        List<Booking> actual = bookingRepository.findLastAndNextBookings(List.of(item.getId(), other.getId()), now);
+
+        assertEquals(Set.of(last.getId(), bookingApprove.getId(), otherLast.getId(), otherNext.getId()),
+                actual.stream().map(Booking::getId).collect(Collectors.toSet()));
+        assertEquals(user.getId(), actual.get(0).getOwnerId());
     }
 
     @Test
@@ -130,6 +171,7 @@ class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setBooker(user);
         booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStart(LocalDateTime.now().minusHours(2));
         booking.setEnd(LocalDateTime.now().minusHours(1));
         em.persist(booking);
@@ -147,6 +189,7 @@ class BookingRepositoryTest {
         booking.setStatus(BookingStatus.APPROVED);
         booking.setBooker(user);
         booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStart(LocalDateTime.now());
         booking.setEnd(LocalDateTime.now().plusHours(1));
         em.persist(booking);
@@ -171,144 +214,306 @@ class BookingRepositoryTest {
     }
 
     @Test
-    public void findAllByBookerIdAndStatusOrderByStartDescTest() {
-        Page<Booking> actual = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, page);
+    public void findByFilterBookerStatusTest() {
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.WAITING).build(), page);
         assertNotNull(actual);
-        assertEquals(1, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
+        assertEquals(1, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
 
         bookingTemp.setStatus(BookingStatus.WAITING);
-        actual = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, page);
+        actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.WAITING).build(), page);
         assertNotNull(actual);
-        assertEquals(2, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingTemp, actual.getContent().get(1));
+        assertEquals(2, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingTemp.getId(), actual.get(1).getId());
     }
 
     @Test
-    public void findAllByBookerIdOrderByStartDescTest() {
-        Page<Booking> actual = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId(), page);
+    public void findByFilterBookerAllTest() {
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.ALL).build(), page);
         assertNotNull(actual);
-        assertEquals(4, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingApprove, actual.getContent().get(1));
-        assertEquals(bookingRejected, actual.getContent().get(2));
-        assertEquals(bookingTemp, actual.getContent().get(3));
+        assertEquals(4, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingApprove.getId(), actual.get(1).getId());
+        assertEquals(bookingRejected.getId(), actual.get(2).getId());
+        assertEquals(bookingTemp.getId(), actual.get(3).getId());
     }
 
     @Test
-    public void findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescTest() {
+    public void findByFilterBookerCurrentTest() {
         LocalDateTime time = LocalDateTime.now().plusMinutes(10);
-        Page<Booking> actual = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(user.getId(), time, time, page);
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.CURRENT).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(4, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingApprove, actual.getContent().get(1));
-        assertEquals(bookingRejected, actual.getContent().get(2));
-        assertEquals(bookingTemp, actual.getContent().get(3));
+        assertEquals(4, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingApprove.getId(), actual.get(1).getId());
+        assertEquals(bookingRejected.getId(), actual.get(2).getId());
+        assertEquals(bookingTemp.getId(), actual.get(3).getId());
     }
 
     @Test
-    public void findAllByBookerIdAndEndBeforeOrderByStartDescTest() {
+    public void findByFilterBookerPastTest() {
         LocalDateTime time = LocalDateTime.now();
-        Page<Booking> actual = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(user.getId(), time, page);
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.PAST).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(0, actual.getContent().size());
+        assertEquals(0, actual.size());
 
         bookingTemp.setStart(LocalDateTime.now().minusHours(2));
         bookingTemp.setEnd(LocalDateTime.now().minusHours(1));
-        actual = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(user.getId(), time, page);
+        actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.PAST).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(1, actual.getContent().size());
-        assertEquals(bookingTemp, actual.getContent().get(0));
+        assertEquals(1, actual.size());
+        assertEquals(bookingTemp.getId(), actual.get(0).getId());
     }
 
     @Test
-    public void findAllByBookerIdAndStartAfterOrderByStartDescTest() {
+    public void findByFilterBookerFutureTest() {
         LocalDateTime time = LocalDateTime.now().plusHours(1);
-        Page<Booking> actual = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(user.getId(), time, page);
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.FUTURE).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(0, actual.getContent().size());
+        assertEquals(0, actual.size());
 
         time = LocalDateTime.now().minusHours(1);
-        actual = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(user.getId(), time, page);
+        actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).state(BookingState.FUTURE).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(4, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingApprove, actual.getContent().get(1));
-        assertEquals(bookingRejected, actual.getContent().get(2));
-        assertEquals(bookingTemp, actual.getContent().get(3));
+        assertEquals(4, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingApprove.getId(), actual.get(1).getId());
+        assertEquals(bookingRejected.getId(), actual.get(2).getId());
+        assertEquals(bookingTemp.getId(), actual.get(3).getId());
     }
 
     // owner
 
     @Test
-    public void findAllByItemOwnerIdAndStatusOrderByStartDescTest() {
-        Page<Booking> actual = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, page);
+    public void findByFilterOwnerStatusTest() {
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.WAITING).build(), page);
         assertNotNull(actual);
-        assertEquals(1, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
+        assertEquals(1, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
 
         bookingTemp.setStatus(BookingStatus.WAITING);
-        actual = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, page);
+        actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.WAITING).build(), page);
         assertNotNull(actual);
-        assertEquals(2, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingTemp, actual.getContent().get(1));
+        assertEquals(2, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingTemp.getId(), actual.get(1).getId());
     }
 
     @Test
-    public void findAllByItemOwnerIdOrderByStartDescTest() {
-        Page<Booking> actual = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(user.getId(), page);
+    public void findByFilterOwnerAllTest() {
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.ALL).build(), page);
         assertNotNull(actual);
-        assertEquals(4, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingApprove, actual.getContent().get(1));
-        assertEquals(bookingRejected, actual.getContent().get(2));
-        assertEquals(bookingTemp, actual.getContent().get(3));
+        assertEquals(4, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingApprove.getId(), actual.get(1).getId());
+        assertEquals(bookingRejected.getId(), actual.get(2).getId());
+        assertEquals(bookingTemp.getId(), actual.get(3).getId());
     }
 
     @Test
-    public void findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescTest() {
+    public void findByFilterOwnerCurrentTest() {
         LocalDateTime time = LocalDateTime.now().plusMinutes(10);
-        Page<Booking> actual = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(user.getId(), time, time, page);
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.CURRENT).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(4, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingApprove, actual.getContent().get(1));
-        assertEquals(bookingRejected, actual.getContent().get(2));
-        assertEquals(bookingTemp, actual.getContent().get(3));
+        assertEquals(4, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingApprove.getId(), actual.get(1).getId());
+        assertEquals(bookingRejected.getId(), actual.get(2).getId());
+        assertEquals(bookingTemp.getId(), actual.get(3).getId());
     }
 
     @Test
-    public void findAllByItemOwnerIdAndEndBeforeOrderByStartDescTest() {
+    public void findByFilterOwnerPastTest() {
         LocalDateTime time = LocalDateTime.now();
-        Page<Booking> actual = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(user.getId(), time, page);
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.PAST).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(0, actual.getContent().size());
+        assertEquals(0, actual.size());
 
         bookingTemp.setStart(LocalDateTime.now().minusHours(2));
         bookingTemp.setEnd(LocalDateTime.now().minusHours(1));
-        actual = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(user.getId(), time, page);
+        actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.PAST).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(1, actual.getContent().size());
-        assertEquals(bookingTemp, actual.getContent().get(0));
+        assertEquals(1, actual.size());
+        assertEquals(bookingTemp.getId(), actual.get(0).getId());
     }
 
     @Test
-    public void findAllByItemOwnerIdAndStartAfterOrderByStartDescTest() {
+    public void findByFilterOwnerFutureTest() {
         LocalDateTime time = LocalDateTime.now().plusHours(1);
-        Page<Booking> actual = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(user.getId(), time, page);
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.FUTURE).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(0, actual.getContent().size());
+        assertEquals(0, actual.size());
 
         time = LocalDateTime.now().minusHours(1);
-        actual = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(user.getId(), time, page);
+        actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).state(BookingState.FUTURE).time(time).build(), page);
         assertNotNull(actual);
-        assertEquals(4, actual.getContent().size());
-        assertEquals(bookingWaiting, actual.getContent().get(0));
-        assertEquals(bookingApprove, actual.getContent().get(1));
-        assertEquals(bookingRejected, actual.getContent().get(2));
-        assertEquals(bookingTemp, actual.getContent().get(3));
+        assertEquals(4, actual.size());
+        assertEquals(bookingWaiting.getId(), actual.get(0).getId());
+        assertEquals(bookingApprove.getId(), actual.get(1).getId());
+        assertEquals(bookingRejected.getId(), actual.get(2).getId());
+        assertEquals(bookingTemp.getId(), actual.get(3).getId());
+    }
+
+    @Test
+    public void findByFilterItemAndRangeTest() {
+        Item other = new Item();
+        other.setName("Отвертка");
+        other.setDescription("Отвертка крестовая");
+        other.setAvailable(true);
+        other.setOwner(user);
+        em.persist(other);
+        approved(other, LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().itemId(item.getId()).build(), page);
+        assertEquals(4, actual.size());
+
+        actual = bookingRepository.findByFilter(BookingFilter.builder()
+                .itemId(item.getId())
+                .rangeStart(LocalDateTime.now().minusHours(1))
+                .rangeEnd(LocalDateTime.now().plusMinutes(4))
+                .build(), page);
+        assertEquals(List.of(bookingRejected.getId(), bookingTemp.getId()), ids(actual));
+
+        actual = bookingRepository.findByFilter(BookingFilter.builder()
+                .ownerId(user.getId())
+                .rangeStart(LocalDateTime.now().plusHours(2))
+                .build(), page);
+        assertEquals(List.of(), ids(actual));
+    }
+
+    @Test
+    public void findByFilterProjectsItemAndBookerTest() {
+        em.flush();
+        em.clear();
+
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).build(), PageRequest.of(1, 2));
+
+        assertEquals(List.of(bookingRejected.getId(), bookingTemp.getId()), ids(actual));
+        assertEquals(BookingStatus.REJECTED, actual.get(0).getStatus());
+        assertEquals(user.getId(), actual.get(0).getBooker().getId());
+        assertEquals("User", actual.get(0).getBooker().getName());
+        assertEquals(item.getId(), actual.get(0).getItem().getId());
+        assertEquals("Дрель", actual.get(0).getItem().getName());
+    }
+
+    @Test
+    public void findByFilterAfterKeyTest() {
+        bookingRejected.setStart(bookingRejected.getStart().truncatedTo(ChronoUnit.SECONDS));
+        bookingTemp.setStart(bookingRejected.getStart());
+        bookingApprove.setStart(bookingApprove.getStart().truncatedTo(ChronoUnit.SECONDS));
+
+        List<BookingDto> actual = bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).build(), page);
+        assertEquals(List.of(bookingWaiting.getId(), bookingApprove.getId(), bookingTemp.getId(), bookingRejected.getId()),
+                ids(actual));
+
+        actual = bookingRepository.findByFilter(BookingFilter.builder()
+                .bookerId(user.getId())
+                .afterStart(bookingTemp.getStart())
+                .afterId(bookingTemp.getId())
+                .build(), page);
+        assertEquals(List.of(bookingRejected.getId()), ids(actual));
+
+        actual = bookingRepository.findByFilter(BookingFilter.builder()
+                .bookerId(user.getId())
+                .afterStart(bookingApprove.getStart())
+                .afterId(bookingApprove.getId())
+                .build(), page);
+        assertEquals(List.of(bookingTemp.getId(), bookingRejected.getId()), ids(actual));
+    }
+
+    @Test
+    public void updateOwnerIdByItemIdTest() {
+        User other = new User();
+        other.setName("Other");
+        other.setEmail("other@mail.ru");
+        em.persist(other);
+
+        assertEquals(4, bookingRepository.updateOwnerIdByItemId(item.getId(), other.getId()));
+        em.clear();
+
+        assertEquals(4, bookingRepository.findByFilter(BookingFilter.builder().ownerId(other.getId()).build(), page).size());
+        assertEquals(0, bookingRepository.findByFilter(BookingFilter.builder().ownerId(user.getId()).build(), page).size());
+    }
+
+    @Test
+    public void findAllByItemIdInAndStatusAndStartBeforeAndEndAfterTest() {
+        List<Booking> actual = bookingRepository.findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(
+                List.of(item.getId(), 99L), BookingStatus.APPROVED, bookingApprove.getEnd(), bookingApprove.getStart());
+        assertEquals(List.of(bookingApprove), actual);
+
+        actual = bookingRepository.findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(
+                List.of(item.getId()), BookingStatus.APPROVED, bookingApprove.getStart().minusSeconds(1), bookingApprove.getStart().minusHours(1));
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    public void moveToArchiveTest() {
+        Booking ended = approved(item, LocalDateTime.now().minusDays(60), LocalDateTime.now().minusDays(59));
+        approved(item, LocalDateTime.now().minusDays(40), LocalDateTime.now().minusDays(39));
+        List<Long> ids = bookingRepository.findIdsByEndBefore(LocalDateTime.now().minusDays(30), LocalDateTime.now(),
+                PageRequest.of(0, 10));
+        assertEquals(List.of(ended.getId()), ids);
+
+        assertEquals(1, bookingRepository.moveToArchive(ids));
+        em.clear();
+
+        assertTrue(bookingRepository.findById(ended.getId()).isEmpty());
+        List<BookingDto> archived = bookingRepository.findArchivedByFilter(
+                BookingFilter.builder().bookerId(user.getId()).state(BookingState.PAST).build(), page);
+        assertEquals(1, archived.size());
+        assertEquals(ended.getId(), archived.get(0).getId());
+        assertEquals(item.getName(), archived.get(0).getItem().getName());
+        assertTrue(archivedBookingRepository.existsByItemIdAndBookerIdAndStatus(item.getId(), user.getId(), BookingStatus.APPROVED));
+        assertEquals(5, bookingRepository.findByFilter(BookingFilter.builder().bookerId(user.getId()).build(), page).size());
+    }
+
+    @Test
+    public void findIdsByEndBeforeKeepsLastApprovedBookingTest() {
+        Booking last = approved(item, LocalDateTime.now().minusDays(60), LocalDateTime.now().minusDays(59));
+        LocalDateTime archivedBefore = LocalDateTime.now().minusDays(30);
+
+        assertTrue(bookingRepository.findIdsByEndBefore(archivedBefore, LocalDateTime.now(), PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(last.getId()), bookingRepository.findIdsByEndBefore(archivedBefore,
+                bookingApprove.getStart().plusMinutes(1), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void updateWaitingStatusTest() {
+        assertEquals(0L, bookingWaiting.getVersion());
+        assertEquals(0, bookingRepository.updateWaitingStatus(bookingWaiting.getId(), 99L, BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.updateWaitingStatus(bookingApprove.getId(), user.getId(), BookingStatus.REJECTED));
+        assertEquals(1, bookingRepository.updateWaitingStatus(bookingWaiting.getId(), user.getId(), BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.updateWaitingStatus(bookingWaiting.getId(), user.getId(), BookingStatus.REJECTED));
+
+        Booking actual = em.find(Booking.class, bookingWaiting.getId());
+        assertEquals(BookingStatus.APPROVED, actual.getStatus());
+        assertEquals(1L, actual.getVersion());
+    }
+
+    @Test
+    public void findFirstByItemIdAndStatusAndStartBeforeOrderByStartDescTest() {
+        Optional<Booking> actual = bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now().plusMinutes(4));
+        assertTrue(actual.isEmpty());
+
+        actual = bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now().plusMinutes(10));
+        assertEquals(Optional.of(bookingApprove), actual);
+    }
+
+    private Booking approved(Item item, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setBooker(user);
+        booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
+        booking.setStart(start);
+        booking.setEnd(end);
+        return em.persist(booking);
+    }
+
+    private List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOwnerSynchronizerTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingArchive bookingArchive;
+    @InjectMocks
+    private BookingOwnerSynchronizer synchronizer;
+    private final ItemDto item = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+
+    @Test
+    public void ownerChangeUpdatesBookings() {
+        ItemDto transferred = new ItemDto(1L, "Дрель", "Новая дрель", true, 2L, null);
+        when(archivedBookingRepository.updateOwnerIdByItemId(1L, 2L))
+                .thenReturn(1);
+
+        synchronizer.onItemChanged(new ItemChangedEvent(item, transferred));
+
+        verify(bookingRepository).updateOwnerIdByItemId(1L, 2L);
+        verify(archivedBookingRepository).updateOwnerIdByItemId(1L, 2L);
+        verify(bookingArchive).addOwner(2L);
+    }
+
+    @Test
+    public void otherChangesAreIgnored() {
+        ItemDto renamed = new ItemDto(1L, "Дрель 'DeWalt'", "Новая дрель", true, 1L, null);
+
+        synchronizer.onItemChanged(new ItemChangedEvent(item, renamed));
+        synchronizer.onItemChanged(new ItemChangedEvent(null, item));
+        synchronizer.onItemChanged(new ItemChangedEvent(item, null));
+
+        verifyNoInteractions(bookingRepository, archivedBookingRepository, bookingArchive);
+    }
+}
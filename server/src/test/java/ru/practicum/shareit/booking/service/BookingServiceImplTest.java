@@ -3,31 +3,45 @@ package ru.practicum.shareit.booking.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingUpdateResultDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.utility.BookingMapper;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.Cursor;
+import ru.practicum.shareit.utility.SliceDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,9 +49,15 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingArchive bookingArchive;
+    @Mock
     private UserService userService;
     @Mock
-    private ItemRepository itemRepository;
+    private BookingConflictGuard conflictGuard;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private BookingServiceImpl bookingService;
     private Booking booking;
@@ -69,8 +89,12 @@ class BookingServiceImplTest {
         booking.setStart(LocalDateTime.now());
         booking.setEnd(LocalDateTime.now().plusHours(1));
         booking.setItem(item);
+        booking.setOwnerId(owner.getId());
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.WAITING);
+
+        lenient().when(bookingArchive.archivedBefore())
+                .thenReturn(LocalDateTime.now().minusDays(30));
     }
 
     @Test
@@ -111,6 +135,89 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.getBookingById(99L, booker.getId()));
     }
 
+    @Test
+    public void getBookingByIdArchived() {
+        ArchivedBooking archived = new ArchivedBooking();
+        archived.setId(booking.getId());
+        archived.setStart(booking.getStart().minusDays(60));
+        archived.setEnd(booking.getEnd().minusDays(60));
+        archived.setItem(item);
+        archived.setOwnerId(owner.getId());
+        archived.setBooker(booker);
+        archived.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.empty());
+        when(archivedBookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.of(archived));
+
+        BookingDto actual = bookingService.getBookingById(booking.getId(), owner.getId());
+
+        assertEquals(archived.getStart(), actual.getStart());
+        assertEquals(BookingStatus.APPROVED, actual.getStatus());
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingById(booking.getId(), 99L));
+    }
+
+    @Test
+    public void getUserBookingsSkipsArchiveForRecentPage() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<BookingDto> recent = List.of(
+                new BookingDto(2L, start, start.plusHours(1), BookingStatus.APPROVED, 2L, "Booker", 1L, "Дрель"),
+                new BookingDto(1L, start.minusDays(1), start, BookingStatus.APPROVED, 2L, "Booker", 1L, "Дрель"));
+        when(bookingRepository.findByFilter(any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(recent);
+
+        when(bookingArchive.mayHold(any()))
+                .thenReturn(true);
+
+        assertEquals(recent, bookingService.getUserBookings(booker.getId(), BookingState.PAST, 0, 2));
+        verify(bookingRepository, never()).findArchivedByFilter(any(), any());
+    }
+
+    @Test
+    public void getUserBookingsSkipsArchiveWithoutUserBookings() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+        List<BookingDto> recent = List.of(BookingMapper.mapToBookingDto(booking));
+        when(bookingRepository.findByFilter(any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(recent);
+
+        when(bookingArchive.mayHold(argThat(filter -> booker.getId().equals(filter.getBookerId()))))
+                .thenReturn(false);
+
+        assertEquals(recent, bookingService.getUserBookings(booker.getId(), BookingState.ALL, 0, 2));
+        verify(bookingRepository, never()).findArchivedByFilter(any(), any());
+    }
+
+    @Test
+    public void getUserBookingsMergesArchiveBeyondHotBookings() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+        LocalDateTime start = LocalDateTime.now().minusDays(40);
+        BookingDto hot = new BookingDto(3L, start, LocalDateTime.now().minusDays(1), BookingStatus.APPROVED, 2L, "Booker", 1L, "Дрель");
+        BookingDto archivedLater = new BookingDto(2L, start.plusDays(1), start.plusDays(2), BookingStatus.APPROVED, 2L, "Booker", 1L, "Дрель");
+        BookingDto archivedEarlier = new BookingDto(1L, start.minusDays(1), start, BookingStatus.APPROVED, 2L, "Booker", 1L, "Дрель");
+        when(bookingRepository.findByFilter(any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(hot));
+        when(bookingRepository.findArchivedByFilter(any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(archivedLater, archivedEarlier));
+
+        when(bookingArchive.mayHold(any()))
+                .thenReturn(true);
+
+        assertEquals(List.of(archivedLater, hot), bookingService.getUserBookings(booker.getId(), BookingState.PAST, 0, 2));
+
+        when(bookingRepository.findByFilter(any(), eq(PageRequest.of(1, 2))))
+                .thenReturn(List.of());
+        when(bookingRepository.findByFilter(any(), eq(PageRequest.of(0, 4))))
+                .thenReturn(List.of(hot));
+        when(bookingRepository.findArchivedByFilter(any(), eq(PageRequest.of(0, 4))))
+                .thenReturn(List.of(archivedLater, archivedEarlier));
+
+        assertEquals(List.of(archivedEarlier), bookingService.getUserBookings(booker.getId(), BookingState.PAST, 2, 2));
+    }
+
     @Test
     public void getUserBookingsUserNotFound() {
         when(userService.getUser(99L))
@@ -125,12 +232,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsAllStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(eq(booking.getId()), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getBookerId())
+                        && filter.getState() == BookingState.ALL), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getUserBookings(owner.getId(), BookingState.ALL, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -142,12 +249,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsCurrentStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(booking.getId()), any(), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getBookerId())
+                        && filter.getState() == BookingState.CURRENT), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getUserBookings(owner.getId(), BookingState.CURRENT, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -159,12 +266,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsPastStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getBookerId())
+                        && filter.getState() == BookingState.PAST), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getUserBookings(owner.getId(), BookingState.PAST, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -176,12 +283,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsFutureStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getBookerId())
+                        && filter.getState() == BookingState.FUTURE), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getUserBookings(owner.getId(), BookingState.FUTURE, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -193,12 +300,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsWaitingStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getBookerId())
+                        && filter.getState() == BookingState.WAITING), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getUserBookings(owner.getId(), BookingState.WAITING, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -210,12 +317,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsRejectedStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getBookerId())
+                        && filter.getState() == BookingState.REJECTED), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getUserBookings(owner.getId(), BookingState.REJECTED, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -225,6 +332,44 @@ class BookingServiceImplTest {
         assertEquals(expected.getItem().getId(), actual.getItem().getId());
     }
 
+    @Test
+    public void getUserBookingsAfterCursor() {
+        when(userService.getUser(owner.getId()))
+                .thenReturn(owner);
+        LocalDateTime start = LocalDateTime.of(2023, 3, 1, 12, 0, 0, 123000);
+        BookingDto first = new BookingDto(5L, start, start.plusHours(1), BookingStatus.WAITING, 2L, "Booker", 1L, "Дрель");
+        BookingDto second = new BookingDto(4L, start, start.plusHours(1), BookingStatus.WAITING, 2L, "Booker", 1L, "Дрель");
+        BookingDto third = new BookingDto(3L, start.minusDays(1), start, BookingStatus.WAITING, 2L, "Booker", 1L, "Дрель");
+        when(bookingRepository.findByFilter(argThat(filter -> filter != null && filter.getAfterStart() == null), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(first, second, third));
+
+        SliceDto<BookingDto> actual = bookingService.getUserBookings(owner.getId(), BookingState.ALL, "", 2);
+
+        assertEquals(List.of(first, second), actual.getContent());
+        assertEquals(Cursor.encode(start, 4L), actual.getNext());
+
+        when(bookingRepository.findByFilter(argThat(filter -> start.equals(filter.getAfterStart())
+                        && Long.valueOf(4L).equals(filter.getAfterId())
+                        && owner.getId().equals(filter.getBookerId())), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(third));
+
+        actual = bookingService.getUserBookings(owner.getId(), BookingState.ALL, actual.getNext(), 2);
+
+        assertEquals(List.of(third), actual.getContent());
+        assertNull(actual.getNext());
+    }
+
+    @Test
+    public void getBookingsByOwnerInvalidCursor() {
+        when(userService.getUser(owner.getId()))
+                .thenReturn(owner);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getBookingsByOwner(owner.getId(), BookingState.ALL, "MQ", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getBookingsByOwner(owner.getId(), BookingState.ALL, Cursor.encode("yesterday", 1L), 10));
+    }
+
     @Test
     public void getUserBookingsByOwnerUnknownStatus() {
         assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByOwner(1L, BookingState.valueOf("Unknown"), 0, 10));
@@ -232,12 +377,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsByOwnerAllStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(eq(booking.getId()), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getOwnerId())
+                        && filter.getState() == BookingState.ALL), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getBookingsByOwner(owner.getId(), BookingState.ALL, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -249,12 +394,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsByOwnerCurrentStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(booking.getId()), any(), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getOwnerId())
+                        && filter.getState() == BookingState.CURRENT), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getBookingsByOwner(owner.getId(), BookingState.CURRENT, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -266,12 +411,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsByOwnerPastStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getOwnerId())
+                        && filter.getState() == BookingState.PAST), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getBookingsByOwner(owner.getId(), BookingState.PAST, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -283,12 +428,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsByOwnerFutureStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getOwnerId())
+                        && filter.getState() == BookingState.FUTURE), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getBookingsByOwner(owner.getId(), BookingState.FUTURE, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -300,12 +445,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsByOwnerWaitingStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getOwnerId())
+                        && filter.getState() == BookingState.WAITING), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getBookingsByOwner(owner.getId(), BookingState.WAITING, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -317,12 +462,12 @@ class BookingServiceImplTest {
 
     @Test
     public void getUserBookingsByOwnerRejectedStatus() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(eq(booking.getId()), any(), any()))
-                .thenReturn(page);
+        when(bookingRepository.findByFilter(argThat(filter -> owner.getId().equals(filter.getOwnerId())
+                        && filter.getState() == BookingState.REJECTED), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(booking)));
 
         BookingDto actual = bookingService.getBookingsByOwner(owner.getId(), BookingState.REJECTED, 0, 10).get(0);
         BookingDto expected = BookingMapper.mapToBookingDto(booking);
@@ -337,8 +482,8 @@ class BookingServiceImplTest {
         when(userService.getUser(booker.getId()))
                 .thenReturn(booker);
 
-        when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.ofNullable(item));
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
 
         when(bookingRepository.save(any()))
                 .thenReturn(booking);
@@ -356,13 +501,63 @@ class BookingServiceImplTest {
         assertEquals(expected.getItem().getId(), actual.getItem().getId());
     }
 
+    @Test
+    public void addBookingsOverlapsApproved() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
+
+        Booking approved = new Booking();
+        approved.setStart(booking.getStart().minusHours(1));
+        approved.setEnd(booking.getStart().plusMinutes(1));
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                item.getId(), BookingStatus.APPROVED, booking.getEnd()))
+                .thenReturn(Optional.of(approved));
+
+        BookingCreateDto bookingCreateDto = new BookingCreateDto();
+        bookingCreateDto.setItemId(item.getId());
+        bookingCreateDto.setStart(booking.getStart());
+        bookingCreateDto.setEnd(booking.getEnd());
+
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(bookingCreateDto, booker.getId()));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    public void addBookingsAfterApproved() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
+
+        Booking approved = new Booking();
+        approved.setStart(booking.getStart().minusHours(1));
+        approved.setEnd(booking.getStart());
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                item.getId(), BookingStatus.APPROVED, booking.getEnd()))
+                .thenReturn(Optional.of(approved));
+
+        when(bookingRepository.save(any()))
+                .thenReturn(booking);
+
+        BookingCreateDto bookingCreateDto = new BookingCreateDto();
+        bookingCreateDto.setItemId(item.getId());
+        bookingCreateDto.setStart(booking.getStart());
+        bookingCreateDto.setEnd(booking.getEnd());
+
+        assertEquals(booking.getId(), bookingService.addBooking(bookingCreateDto, booker.getId()).getId());
+    }
+
     @Test
     public void addBookingsOwnerBookOwnItem() {
         when(userService.getUser(owner.getId()))
                 .thenReturn(owner);
 
-        when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.ofNullable(item));
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
 
         BookingCreateDto bookingCreateDto = new BookingCreateDto();
         bookingCreateDto.setItemId(item.getId());
@@ -377,8 +572,8 @@ class BookingServiceImplTest {
         when(userService.getUser(booker.getId()))
                 .thenReturn(booker);
 
-        when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.ofNullable(item));
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
 
         BookingCreateDto bookingCreateDto = new BookingCreateDto();
         bookingCreateDto.setItemId(item.getId());
@@ -408,7 +603,7 @@ class BookingServiceImplTest {
         when(userService.getUser(booker.getId()))
                 .thenReturn(booker);
 
-        when(itemRepository.findById(99L))
+        when(conflictGuard.getItem(99L))
                 .thenThrow(NotFoundException.class);
 
         BookingCreateDto bookingCreateDto = new BookingCreateDto();
@@ -419,39 +614,149 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.addBooking(bookingCreateDto, booker.getId()));
     }
 
+    @Test
+    public void addBookingsInBatch() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+
+        when(conflictGuard.getItems(Set.of(item.getId())))
+                .thenReturn(List.of(item));
+
+        when(bookingRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookingCreateDto first = createDto(booking.getStart(), booking.getEnd());
+        BookingCreateDto second = createDto(booking.getEnd(), booking.getEnd().plusHours(1));
+
+        List<BookingDto> actual = bookingService.addBookings(List.of(first, second), booker.getId());
+
+        assertEquals(2, actual.size());
+        assertEquals(second.getStart(), actual.get(1).getStart());
+        assertEquals(item.getId(), actual.get(1).getItem().getId());
+        assertEquals(BookingStatus.WAITING, actual.get(1).getStatus());
+        verify(bookingRepository).findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(
+                Set.of(item.getId()), BookingStatus.APPROVED, second.getEnd(), first.getStart());
+    }
+
+    @Test
+    public void addBookingsInBatchUnknownItem() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+
+        when(conflictGuard.getItems(Set.of(item.getId(), 99L)))
+                .thenReturn(List.of(item));
+
+        BookingCreateDto unknown = createDto(booking.getStart(), booking.getEnd());
+        unknown.setItemId(99L);
+
+        assertThrows(NotFoundException.class, () -> bookingService.addBookings(
+                List.of(createDto(booking.getStart(), booking.getEnd()), unknown), booker.getId()));
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void addBookingsInBatchOverlapsApproved() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+
+        when(conflictGuard.getItems(Set.of(item.getId())))
+                .thenReturn(List.of(item));
+
+        Booking approved = new Booking();
+        approved.setItem(item);
+        approved.setStart(booking.getEnd().plusHours(1));
+        approved.setEnd(booking.getEnd().plusHours(2));
+        when(bookingRepository.findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(
+                Set.of(item.getId()), BookingStatus.APPROVED, approved.getEnd(), booking.getStart()))
+                .thenReturn(List.of(approved));
+
+        List<BookingCreateDto> bookingDtos = List.of(
+                createDto(booking.getStart(), booking.getEnd()),
+                createDto(approved.getStart().minusMinutes(30), approved.getEnd()));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.addBookings(bookingDtos, booker.getId()));
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
     @Test
     public void updateBookingApprove() {
         when(bookingRepository.findById(booking.getId()))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(userService.getUser(owner.getId()))
-                .thenReturn(owner);
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
+
+        when(conflictGuard.approve(booking))
+                .thenReturn(1);
 
+        BookingDto expected = withStatus(BookingStatus.APPROVED);
         BookingDto actual = bookingService.updateBooking(booking.getId(), owner.getId(), true);
-        BookingDto expected = BookingMapper.mapToBookingDto(booking);
 
-        assertEquals(expected.getId(), actual.getId());
-        assertEquals(expected.getBooker().getId(), actual.getBooker().getId());
-        assertEquals(expected.getItem().getId(), actual.getItem().getId());
-        assertEquals(expected.getStatus(), actual.getStatus());
+        assertSame(expected, actual);
+        verify(eventPublisher).publishEvent(argThat((BookingChangedEvent event) -> event.getItemId().equals(item.getId())));
     }
 
     @Test
-    public void updateBookingRejected() {
+    public void updateBookingApproveConcurrentlyChanged() {
         when(bookingRepository.findById(booking.getId()))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(userService.getUser(owner.getId()))
-                .thenReturn(owner);
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
+
+        when(conflictGuard.approve(booking))
+                .thenReturn(0);
 
+        assertThrows(BookingConflictException.class, () -> bookingService.updateBooking(booking.getId(), owner.getId(), true));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void updateBookingApproveOverlapsApproved() {
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.ofNullable(booking));
+
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
+
+        Booking approved = new Booking();
+        approved.setStart(booking.getStart());
+        approved.setEnd(booking.getEnd());
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                item.getId(), BookingStatus.APPROVED, booking.getEnd()))
+                .thenReturn(Optional.of(approved));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.updateBooking(booking.getId(), owner.getId(), true));
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        verify(conflictGuard, never()).approve(any());
+    }
+
+    @Test
+    public void updateBookingRejected() {
+        when(bookingRepository.updateWaitingStatus(booking.getId(), owner.getId(), BookingStatus.REJECTED))
+                .thenReturn(1);
+
+        BookingDto expected = withStatus(BookingStatus.REJECTED);
         BookingDto actual = bookingService.updateBooking(booking.getId(), owner.getId(), false);
-        BookingDto expected = BookingMapper.mapToBookingDto(booking);
-        expected.setStatus(BookingStatus.REJECTED);
 
-        assertEquals(expected.getId(), actual.getId());
-        assertEquals(expected.getBooker().getId(), actual.getBooker().getId());
-        assertEquals(expected.getItem().getId(), actual.getItem().getId());
-        assertEquals(expected.getStatus(), actual.getStatus());
+        assertSame(expected, actual);
+        verify(bookingRepository, never()).findById(any());
+    }
+
+    @Test
+    public void updateBookingRejectedAfterApprove() {
+        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.updateWaitingStatus(booking.getId(), owner.getId(), BookingStatus.REJECTED))
+                .thenReturn(0);
+
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.ofNullable(booking));
+
+        BookingDto expected = withStatus(BookingStatus.REJECTED);
+        BookingDto actual = bookingService.updateBooking(booking.getId(), owner.getId(), false);
+
+        assertSame(expected, actual);
+        assertEquals(BookingStatus.REJECTED, booking.getStatus());
     }
 
     @Test
@@ -467,9 +772,6 @@ class BookingServiceImplTest {
         when(bookingRepository.findById(booking.getId()))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(userService.getUser(99L))
-                .thenThrow(NotFoundException.class);
-
         assertThrows(NotFoundException.class, () -> bookingService.updateBooking(booking.getId(), 99L, true));
     }
 
@@ -478,22 +780,95 @@ class BookingServiceImplTest {
         when(bookingRepository.findById(booking.getId()))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(userService.getUser(booker.getId()))
-                .thenReturn(booker);
-
         assertThrows(NotFoundException.class, () -> bookingService.updateBooking(booking.getId(), booker.getId(), true));
     }
 
     @Test
-    public void updateBookingNotWaitingApprove() {
+    public void updateBookingNotOwnerReject() {
+        when(bookingRepository.updateWaitingStatus(booking.getId(), booker.getId(), BookingStatus.REJECTED))
+                .thenReturn(0);
+
         when(bookingRepository.findById(booking.getId()))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(userService.getUser(owner.getId()))
-                .thenReturn(owner);
+        assertThrows(NotFoundException.class, () -> bookingService.updateBooking(booking.getId(), booker.getId(), false));
+    }
+
+    @Test
+    public void updateBookingNotWaitingApprove() {
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.ofNullable(booking));
 
         booking.setStatus(BookingStatus.CANCELED);
 
         assertThrows(IllegalArgumentException.class, () -> bookingService.updateBooking(booking.getId(), owner.getId(), true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void updateBookingsReportsEachBooking() {
+        when(bookingRepository.updateWaitingStatus(booking.getId(), owner.getId(), BookingStatus.REJECTED))
+                .thenReturn(1);
+
+        when(bookingRepository.updateWaitingStatus(99L, owner.getId(), BookingStatus.REJECTED))
+                .thenReturn(0);
+
+        when(bookingRepository.findById(99L))
+                .thenReturn(Optional.empty());
+
+        withStatus(BookingStatus.REJECTED);
+        List<BookingUpdateResultDto> actual = bookingService.updateBookings(List.of(booking.getId(), 99L), owner.getId(), false);
+
+        assertEquals(2, actual.size());
+        assertEquals(booking.getId(), actual.get(0).getId());
+        assertEquals(BookingStatus.REJECTED, actual.get(0).getStatus());
+        assertNull(actual.get(0).getError());
+        assertEquals(99L, actual.get(1).getId());
+        assertNull(actual.get(1).getStatus());
+        assertEquals("Booking with id=99 not found", actual.get(1).getError());
+        verify(eventPublisher).publishEvent(argThat((BookingChangedEvent event) -> event.getItemId().equals(item.getId())));
+    }
+
+    @Test
+    public void updateBookingsApproveLocksFirst() {
+        when(bookingRepository.findAllById(List.of(booking.getId(), 99L)))
+                .thenReturn(List.of(booking));
+
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.ofNullable(booking));
+
+        when(bookingRepository.findById(99L))
+                .thenReturn(Optional.empty());
+
+        when(conflictGuard.getItem(item.getId()))
+                .thenReturn(item);
+
+        when(conflictGuard.approve(booking))
+                .thenReturn(1);
+
+        withStatus(BookingStatus.APPROVED);
+        List<BookingUpdateResultDto> actual = bookingService.updateBookings(List.of(booking.getId(), 99L), owner.getId(), true);
+
+        assertEquals(BookingStatus.APPROVED, actual.get(0).getStatus());
+        assertEquals("Booking with id=99 not found", actual.get(1).getError());
+        InOrder inOrder = inOrder(conflictGuard);
+        inOrder.verify(conflictGuard).lockForApproval(List.of(booking));
+        inOrder.verify(conflictGuard).approve(booking);
+    }
+
+    private BookingCreateDto createDto(LocalDateTime start, LocalDateTime end) {
+        BookingCreateDto bookingCreateDto = new BookingCreateDto();
+        bookingCreateDto.setItemId(item.getId());
+        bookingCreateDto.setStart(start);
+        bookingCreateDto.setEnd(end);
+        return bookingCreateDto;
+    }
+
+    private BookingDto withStatus(BookingStatus status) {
+        BookingDto dto = BookingMapper.mapToBookingDto(booking);
+        dto.setStatus(status);
+        when(bookingRepository.findByFilter(
+                argThat(filter -> filter != null && booking.getId().equals(filter.getId())), eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(dto));
+        return dto;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExclusionConstraintBookingConflictGuardTest {
+    private static final String SHARED = "select pg_advisory_xact_lock_shared(?, ?)";
+    private static final String EXCLUSIVE = "select pg_advisory_xact_lock(?, ?)";
+    private static final int JANUARY = 2027 * 12;
+    private static final int FEBRUARY = JANUARY + 1;
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @InjectMocks
+    private ExclusionConstraintBookingConflictGuard guard;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        Item item = new Item();
+        item.setId(1L);
+        booking = booking(1L, item, LocalDateTime.of(2027, 1, 10, 12, 0), LocalDateTime.of(2027, 1, 12, 12, 0));
+    }
+
+    @Test
+    public void getItemDoesNotLock() {
+        Item item = booking.getItem();
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+
+        assertSame(item, guard.getItem(item.getId()));
+        assertThrows(NotFoundException.class, () -> guard.getItem(99L));
+    }
+
+    @Test
+    public void approveUpdatesWaitingBooking() {
+        when(bookingRepository.updateWaitingStatus(booking.getId(), booking.getOwnerId(), BookingStatus.APPROVED))
+                .thenReturn(1);
+
+        assertEquals(1, guard.approve(booking));
+        verify(jdbcTemplate).query(eq(SHARED), any(RowCallbackHandler.class), eq(1), eq(JANUARY));
+        verify(jdbcTemplate, never()).query(eq(EXCLUSIVE), any(RowCallbackHandler.class), any(), any());
+    }
+
+    @Test
+    public void approveLocksLaterMonthsExclusively() {
+        Booking crossing = booking(2L, booking.getItem(), LocalDateTime.of(2027, 1, 30, 12, 0),
+                LocalDateTime.of(2027, 2, 2, 12, 0));
+        when(bookingRepository.updateWaitingStatus(crossing.getId(), crossing.getOwnerId(), BookingStatus.APPROVED))
+                .thenReturn(1);
+
+        assertEquals(1, guard.approve(crossing));
+        InOrder inOrder = inOrder(jdbcTemplate, bookingRepository);
+        inOrder.verify(jdbcTemplate).query(eq(SHARED), any(RowCallbackHandler.class), eq(1), eq(JANUARY));
+        inOrder.verify(jdbcTemplate).query(eq(EXCLUSIVE), any(RowCallbackHandler.class), eq(1), eq(FEBRUARY));
+        inOrder.verify(bookingRepository).findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(1L,
+                BookingStatus.APPROVED, crossing.getEnd());
+        inOrder.verify(bookingRepository).updateWaitingStatus(crossing.getId(), crossing.getOwnerId(), BookingStatus.APPROVED);
+    }
+
+    @Test
+    public void approveRejectsOverlapFromAnotherMonth() {
+        Booking approved = booking(2L, booking.getItem(), LocalDateTime.of(2026, 12, 30, 12, 0),
+                LocalDateTime.of(2027, 1, 11, 12, 0));
+        approved.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(1L, BookingStatus.APPROVED,
+                booking.getEnd()))
+                .thenReturn(Optional.of(approved));
+
+        assertThrows(BookingConflictException.class, () -> guard.approve(booking));
+        verify(bookingRepository, never()).updateWaitingStatus(any(), any(), any());
+    }
+
+    @Test
+    public void lockForApprovalTakesEachLockOnceInKeyOrder() {
+        Item other = new Item();
+        other.setId(2L);
+        Booking crossing = booking(2L, booking.getItem(), LocalDateTime.of(2027, 1, 30, 12, 0),
+                LocalDateTime.of(2027, 2, 2, 12, 0));
+        Booking february = booking(3L, booking.getItem(), LocalDateTime.of(2027, 2, 5, 12, 0),
+                LocalDateTime.of(2027, 2, 6, 12, 0));
+        Booking otherItem = booking(4L, other, LocalDateTime.of(2027, 1, 5, 12, 0),
+                LocalDateTime.of(2027, 1, 6, 12, 0));
+
+        guard.lockForApproval(List.of(otherItem, february, crossing, booking));
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).query(eq(SHARED), any(RowCallbackHandler.class), eq(1), eq(JANUARY));
+        inOrder.verify(jdbcTemplate).query(eq(EXCLUSIVE), any(RowCallbackHandler.class), eq(1), eq(FEBRUARY));
+        inOrder.verify(jdbcTemplate).query(eq(SHARED), any(RowCallbackHandler.class), eq(2), eq(JANUARY));
+        verify(jdbcTemplate, never()).query(eq(SHARED), any(RowCallbackHandler.class), eq(1), eq(FEBRUARY));
+    }
+
+    @Test
+    public void approveMapsExclusionViolationToConflict() {
+        when(bookingRepository.updateWaitingStatus(booking.getId(), booking.getOwnerId(), BookingStatus.APPROVED))
+                .thenThrow(violation(ExclusionConstraintBookingConflictGuard.EXCLUSION_VIOLATION));
+
+        assertThrows(BookingConflictException.class, () -> guard.approve(booking));
+    }
+
+    @Test
+    public void approveRethrowsOtherViolations() {
+        DataIntegrityViolationException notNull = violation("23502");
+        when(bookingRepository.updateWaitingStatus(booking.getId(), booking.getOwnerId(), BookingStatus.APPROVED))
+                .thenThrow(notNull);
+
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class, () -> guard.approve(booking)));
+    }
+
+    private Booking booking(Long id, Item item, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setOwnerId(2L);
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private DataIntegrityViolationException violation(String sqlState) {
+        SQLException sqlException = new SQLException("violation", sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, null));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.timeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingTimelineCacheTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingTimelineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookingTimelineCache(bookingRepository, new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    public void loadsLastAndFollowingBookingsOnce() {
+        User booker = new User();
+        booker.setId(2L);
+        Booking last = booking(1L, booker, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        Booking next = booking(2L, booker, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartLessThanEqualOrderByEndDesc(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(Optional.of(last));
+        when(bookingRepository.findAllByItemIdAndStatusAndStartAfterOrderByStart(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(next));
+
+        BookingTimeline timeline = cache.get(1L);
+
+        assertSame(timeline, cache.get(1L));
+        assertEquals(2, timeline.size());
+        assertEquals(1L, timeline.last(LocalDateTime.now()).getId());
+        assertEquals(2L, timeline.next(LocalDateTime.now()).getId());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusAndStartAfterOrderByStart(eq(1L), any(), any());
+    }
+
+    @Test
+    public void changesEvictItemTimeline() {
+        stubEmpty();
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.onBookingChanged(new BookingChangedEvent(1L));
+        assertEquals(1, cache.size());
+
+        ItemDto item = new ItemDto(2L, "Дрель", "Новая дрель", true, 1L, null);
+        cache.onItemChanged(new ItemChangedEvent(item, item));
+        assertEquals(1, cache.size());
+        cache.onItemChanged(new ItemChangedEvent(item, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        stubEmpty();
+        for (long itemId = 1; itemId <= 10; itemId++) {
+            cache.get(itemId);
+        }
+
+        assertEquals(2, cache.size());
+    }
+
+    private void stubEmpty() {
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartLessThanEqualOrderByEndDesc(any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.findAllByItemIdAndStatusAndStartAfterOrderByStart(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+    }
+
+    private Booking booking(Long id, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingTimelineTest {
+    private final LocalDateTime now = LocalDateTime.of(2023, 3, 1, 12, 0);
+    private final User booker = new User();
+
+    @BeforeEach
+    void setUp() {
+        booker.setId(7L);
+    }
+
+    @Test
+    public void emptyTimeline() {
+        BookingTimeline timeline = BookingTimeline.of(1L, Collections.emptyList());
+
+        assertNull(timeline.last(now));
+        assertNull(timeline.next(now));
+        assertEquals(0, timeline.size());
+    }
+
+    @Test
+    public void lastAndNextRelativeToTime() {
+        BookingTimeline timeline = BookingTimeline.of(1L, List.of(
+                booking(3L, now.plusDays(1), now.plusDays(2)),
+                booking(1L, now.minusDays(3), now.minusDays(2)),
+                booking(2L, now.minusDays(1), now.plusHours(1))));
+
+        BookingShortDto last = timeline.last(now);
+        assertEquals(2L, last.getId());
+        assertEquals(1L, last.getItemId());
+        assertEquals(7L, last.getBookerId());
+        assertEquals(3L, timeline.next(now).getId());
+
+        assertNull(timeline.last(now.minusDays(4)));
+        assertEquals(1L, timeline.next(now.minusDays(4)).getId());
+        assertEquals(3L, timeline.last(now.plusDays(3)).getId());
+        assertNull(timeline.next(now.plusDays(3)));
+    }
+
+    @Test
+    public void bookingStartingAtTimeIsLast() {
+        BookingTimeline timeline = BookingTimeline.of(1L, List.of(booking(1L, now, now.plusHours(1))));
+
+        assertEquals(1L, timeline.last(now).getId());
+        assertNull(timeline.next(now));
+        assertEquals(1L, timeline.next(now.minusNanos(1)).getId());
+    }
+
+    @Test
+    public void lastIsLatestEndingAmongStarted() {
+        BookingTimeline timeline = BookingTimeline.of(1L, List.of(
+                booking(1L, now.minusDays(3), now.plusDays(1)),
+                booking(2L, now.minusDays(2), now.minusDays(1))));
+
+        assertEquals(1L, timeline.last(now).getId());
+    }
+
+    @Test
+    public void freeSkipsBookedPeriods() {
+        BookingTimeline timeline = BookingTimeline.of(1L, List.of(
+                booking(1L, now.minusDays(1), now.plusHours(2)),
+                booking(2L, now.plusDays(1), now.plusDays(3)),
+                booking(3L, now.plusDays(2), now.plusDays(4)),
+                booking(4L, now.plusDays(4), now.plusDays(5)),
+                booking(5L, now.plusDays(8), now.plusDays(9))));
+
+        List<FreeIntervalDto> free = timeline.free(now, now.plusDays(7));
+
+        assertEquals(2, free.size());
+        assertEquals(now.plusHours(2), free.get(0).getStart());
+        assertEquals(now.plusDays(1), free.get(0).getEnd());
+        assertEquals(now.plusDays(5), free.get(1).getStart());
+        assertEquals(now.plusDays(7), free.get(1).getEnd());
+    }
+
+    @Test
+    public void freeWithinOneBooking() {
+        BookingTimeline timeline = BookingTimeline.of(1L, List.of(booking(1L, now.minusDays(1), now.plusDays(1))));
+
+        assertEquals(0, timeline.free(now, now.plusHours(1)).size());
+        assertEquals(1, BookingTimeline.of(1L, Collections.emptyList()).free(now, now.plusHours(1)).size());
+    }
+
+    @Test
+    public void isFreeOnlyBetweenBookings() {
+        BookingTimeline timeline = BookingTimeline.of(1L, List.of(
+                booking(1L, now.minusDays(1), now.plusHours(2)),
+                booking(2L, now.plusDays(1), now.plusDays(2))));
+
+        assertFalse(timeline.isFree(now, now.plusHours(1)));
+        assertTrue(timeline.isFree(now.plusHours(2), now.plusDays(1)));
+        assertFalse(timeline.isFree(now.plusHours(3), now.plusDays(1).plusNanos(1)));
+        assertTrue(timeline.isFree(now.plusDays(2), now.plusDays(3)));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setBooker(booker);
+        return booking;
+    }
+}
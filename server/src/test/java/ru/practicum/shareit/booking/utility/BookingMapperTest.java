@@ -100,6 +100,7 @@ class BookingMapperTest {
         assertEquals(bookingDto.getEnd(), booking.getEnd());
         assertEquals(BookingStatus.WAITING, booking.getStatus());
         assertEquals(item.getId(), booking.getItem().getId());
+        assertEquals(user.getId(), booking.getOwnerId());
         assertEquals(user.getId(), booking.getBooker().getId());
     }
 }
\ No newline at end of file
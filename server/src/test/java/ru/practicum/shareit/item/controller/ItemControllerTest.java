@@ -10,13 +10,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.exception.ExceptionApiHandler;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utility.SliceDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -80,6 +83,38 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.comments", is(itemInfoDto.getComments())));
     }
 
+    @Test
+    public void getItemAvailability() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        when(itemService.getItemAvailability(1L, start, start.plusDays(7)))
+                .thenReturn(List.of(new FreeIntervalDto(start.plusDays(1), start.plusDays(7))));
+
+        mvc.perform(
+                        get("/items/1/availability")
+                                .param("from", "2030-01-01T12:00:00")
+                                .param("to", "2030-01-08T12:00:00")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].start", is("2030-01-02T12:00:00")))
+                .andExpect(jsonPath("$.[0].end", is("2030-01-08T12:00:00")));
+    }
+
+    @Test
+    public void getComments() throws Exception {
+        CommentDto commentDto = new CommentDto(3L, "Отлично", "Booker", LocalDateTime.of(2023, 3, 1, 12, 0));
+        when(itemService.getComments(1L, "MQ", 1))
+                .thenReturn(new SliceDto<>(List.of(commentDto), "Mg"));
+
+        mvc.perform(
+                        get("/items/1/comments?after=MQ&size=1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].authorName", is("Booker")))
+                .andExpect(jsonPath("$.next", is("Mg")));
+    }
+
     @Test
     public void getItemByIdWithoutUserId() throws Exception {
         mvc.perform(
@@ -168,6 +203,61 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].owner", is(itemDto.getOwner()), Long.class));
     }
 
+    @Test
+    public void searchItemsAfterCursor() throws Exception {
+        when(itemService.searchItems("дрель", "MQ", 1))
+                .thenReturn(new SliceDto<>(List.of(itemDto), "Mg"));
+
+        mvc.perform(
+                        get("/items/search?text=дрель&after=MQ&size=1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$.next", is("Mg")));
+    }
+
+    @Test
+    public void searchItemsFirstSlice() throws Exception {
+        when(itemService.searchItems("дрель", "", 10))
+                .thenReturn(new SliceDto<>(List.of(itemDto), null));
+
+        mvc.perform(
+                        get("/items/search?text=дрель&after=")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    public void searchFreeItems() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.searchItems("дрель", start, start.plusDays(1), 0, 10))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(
+                        get("/items/search?text=дрель&start=2030-01-01T10:00:00&end=2030-01-02T10:00:00")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].id", is(itemDto.getId()), Long.class));
+    }
+
+    @Test
+    public void searchFreeItemsAfterCursor() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.searchItems("дрель", start, start.plusDays(1), "MQ", 1))
+                .thenReturn(new SliceDto<>(List.of(itemDto), "Mg"));
+
+        mvc.perform(
+                        get("/items/search?text=дрель&after=MQ&size=1&start=2030-01-01T10:00:00&end=2030-01-02T10:00:00")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.next", is("Mg")));
+    }
+
     @Test
     public void searchItemsWithoutText() throws Exception {
         mvc.perform(
@@ -176,6 +266,19 @@ class ItemControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    public void suggestItems() throws Exception {
+        when(itemService.suggestItems("др", 5))
+                .thenReturn(List.of("Дрель", "Дрезина"));
+
+        mvc.perform(
+                        get("/items/suggest?prefix=др&size=5")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("Дрель")));
+    }
+
     @Test
     public void addItem() throws Exception {
         when(itemService.addItem(anyLong(), any()))
@@ -197,6 +300,25 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.owner", is(itemDto.getOwner()), Long.class));
     }
 
+    @Test
+    public void addItemsInBatch() throws Exception {
+        when(itemService.addItems(anyLong(), anyList()))
+                .thenReturn(List.of(1L, 2L));
+
+        mvc.perform(
+                        post("/items/batch")
+                                .header("X-Sharer-User-Id", "1")
+                                .content(mapper.writeValueAsString(List.of(itemDto, itemDto)))
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$.[0]", is(1L), Long.class))
+                .andExpect(jsonPath("$.[1]", is(2L), Long.class));
+    }
+
     @Test
     public void addItemWithoutUserId() throws Exception {
         mvc.perform(
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,18 +12,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -86,6 +93,27 @@ class ItemIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void addItemsInBatchTest() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        ItemDto unknownRequest = new ItemDto();
+        unknownRequest.setName(itemDto2.getName());
+        unknownRequest.setDescription(itemDto2.getDescription());
+        unknownRequest.setAvailable(true);
+        unknownRequest.setRequestId(99L);
+        postItems(userDto.getId(), List.of(itemDto, unknownRequest)).andExpect(status().isNotFound());
+
+        postItems(userDto.getId(), List.of(itemDto, itemDto2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$.[0]", is(1L), Long.class))
+                .andExpect(jsonPath("$.[1]", is(2L), Long.class));
+        getItemById(2L, userDto.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is(itemDto2.getName())))
+                .andExpect(jsonPath("$.owner", is(userDto.getId()), Long.class));
+    }
+
     @Test
     public void getAbsentItemByIdTest() throws Exception {
         postUser(userDto).andExpect(status().isOk());
@@ -157,6 +185,115 @@ class ItemIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    public void searchItemsWithCursorTest() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto2).andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/items/search?text=р&after=&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Дрель"))
+                .andExpect(jsonPath("$.next").isString())
+                .andReturn();
+        String next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+        mockMvc.perform(get("/items/search?text=р&after={after}&size=1", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Отвертка"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(get("/items/search?text=р&after=broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchItemsAfterChangesTest() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto2).andExpect(status().isOk());
+
+        itemDto.setName("Перфоратор");
+        itemDto.setDescription("Перфоратор 'Bosch'");
+        patchItem(itemDto.getId(), userDto.getId(), itemDto).andExpect(status().isOk());
+        mockMvc.perform(get("/items/search?text=дрель"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/items/search?text=bosch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].name").value("Перфоратор"));
+
+        itemDto2.setAvailable(false);
+        patchItem(itemDto2.getId(), userDto.getId(), itemDto2).andExpect(status().isOk());
+        mockMvc.perform(get("/items/search?text=отвертка"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        deleteItem(itemDto.getId(), userDto.getId()).andExpect(status().isOk());
+        mockMvc.perform(get("/items/search?text=перфоратор"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void streamItemsTest() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto2).andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userDto.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Дрель", JsonPath.read(lines[0], "$.name"));
+        assertEquals("Отвертка", JsonPath.read(lines[1], "$.name"));
+
+        result = mockMvc.perform(get("/items/search?text=дрель").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertEquals("Дрель", JsonPath.read(lines[0], "$.name"));
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 99)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("User with id=99 not found"));
+    }
+
+    @Test
+    public void suggestItemsTest() throws Exception {
+        postUser(userDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto).andExpect(status().isOk());
+        postItem(userDto.getId(), itemDto2).andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/suggest?prefix=др"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]").value("Дрель"));
+
+        itemDto.setName("Перфоратор");
+        patchItem(itemDto.getId(), userDto.getId(), itemDto).andExpect(status().isOk());
+        mockMvc.perform(get("/items/suggest?prefix=др"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/items/suggest?prefix=пе"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Перфоратор"));
+    }
+
     @Test
     public void updateItemNameTest() throws Exception {
         postUser(userDto).andExpect(status().isOk());
@@ -318,6 +455,15 @@ class ItemIntegrationTest {
         );
     }
 
+    private ResultActions postItems(Long userId, List<ItemDto> itemDtos) throws Exception {
+        return mockMvc.perform(
+                post("/items/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(itemDtos))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+    }
+
     private ResultActions patchItem(Long itemId, Long userId, ItemDto itemDto) throws Exception {
         return mockMvc.perform(
                 patch("/items/" + itemId)
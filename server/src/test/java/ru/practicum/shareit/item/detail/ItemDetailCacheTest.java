@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.detail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemDetailCacheTest {
+    @Mock
+    private ItemDetailReader itemDetailReader;
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+    private final AtomicLong time = new AtomicLong();
+    private ItemDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemDetailCache(itemDetailReader, bookingTimelineCache, new SimpleMeterRegistry(), 10,
+                Duration.ofMinutes(10), time::get);
+    }
+
+    @Test
+    public void cachesOwnerAndOtherViewsSeparately() {
+        ItemInfoDto ownerView = view(1L, 1L);
+        ItemInfoDto otherView = view(1L, 1L);
+        when(itemDetailReader.read(1L, 1L))
+                .thenReturn(Optional.of(ownerView));
+        when(itemDetailReader.read(1L, 2L))
+                .thenReturn(Optional.of(otherView));
+        when(bookingTimelineCache.get(1L))
+                .thenReturn(BookingTimeline.of(1L, Collections.emptyList()));
+
+        assertSame(ownerView, cache.get(1L, 1L).orElseThrow());
+        assertSame(otherView, cache.get(1L, 2L).orElseThrow());
+        assertSame(ownerView, cache.get(1L, 1L).orElseThrow());
+        assertSame(otherView, cache.get(1L, 3L).orElseThrow());
+
+        assertEquals(2, cache.size());
+        verify(itemDetailReader, times(1)).read(1L, 1L);
+        verify(itemDetailReader, times(1)).read(1L, 2L);
+    }
+
+    @Test
+    public void absentItemIsNotCached() {
+        when(itemDetailReader.read(99L, 1L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(cache.get(99L, 1L).isEmpty());
+        assertTrue(cache.get(99L, 1L).isEmpty());
+
+        verify(itemDetailReader, times(2)).read(99L, 1L);
+    }
+
+    @Test
+    public void ownerViewExpiresWhenNextBookingStarts() {
+        User booker = new User();
+        booker.setId(2L);
+        Booking next = new Booking();
+        next.setId(1L);
+        next.setBooker(booker);
+        next.setStart(LocalDateTime.now().plusMinutes(1));
+        next.setEnd(LocalDateTime.now().plusDays(1));
+        when(bookingTimelineCache.get(1L))
+                .thenReturn(BookingTimeline.of(1L, List.of(next)));
+        when(itemDetailReader.read(1L, 1L))
+                .thenReturn(Optional.of(view(1L, 1L)));
+        when(itemDetailReader.read(1L, 2L))
+                .thenReturn(Optional.of(view(1L, 1L)));
+
+        cache.get(1L, 1L);
+        cache.get(1L, 2L);
+        time.addAndGet(Duration.ofMinutes(1).toNanos());
+        cache.get(1L, 1L);
+        cache.get(1L, 2L);
+
+        verify(itemDetailReader, times(2)).read(1L, 1L);
+        verify(itemDetailReader, times(1)).read(1L, 2L);
+    }
+
+    @Test
+    public void changesEvictBothViewsOfItem() {
+        when(itemDetailReader.read(1L, 2L))
+                .thenReturn(Optional.of(view(1L, 1L)));
+        when(itemDetailReader.read(2L, 2L))
+                .thenReturn(Optional.of(view(2L, 1L)));
+        cache.get(1L, 2L);
+        cache.get(2L, 2L);
+
+        cache.onBookingChanged(new BookingChangedEvent(1L));
+        assertEquals(1, cache.size());
+
+        cache.get(1L, 2L);
+        cache.onCommentAdded(new CommentAddedEvent(1L));
+        assertEquals(1, cache.size());
+
+        ItemDto item = new ItemDto(2L, "Дрель", "Новая дрель", true, 1L, null);
+        cache.onItemChanged(new ItemChangedEvent(null, item));
+        assertEquals(1, cache.size());
+        cache.onItemChanged(new ItemChangedEvent(item, item));
+        assertEquals(0, cache.size());
+    }
+
+    private ItemInfoDto view(Long id, Long owner) {
+        ItemInfoDto view = new ItemInfoDto();
+        view.setId(id);
+        view.setOwner(owner);
+        view.setComments(Collections.emptyList());
+        return view;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item.detail;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.utility.Constants.EMBEDDED_COMMENTS;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryItemDetailReaderTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+    @Mock
+    private CommentRepository commentRepository;
+    @InjectMocks
+    private RepositoryItemDetailReader reader;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setId(1L);
+        owner.setName("User");
+        owner.setEmail("mail@mail.ru");
+
+        booker = new User();
+        booker.setId(2L);
+        booker.setName("Booker");
+        booker.setEmail("booker@mail.ru");
+
+        item = new Item();
+        item.setId(1L);
+        item.setName("Дрель");
+        item.setDescription("Новая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setStart(LocalDateTime.now());
+        booking.setEnd(LocalDateTime.now().plusHours(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.WAITING);
+    }
+
+    @Test
+    public void readOwner() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.ofNullable(item));
+
+        Booking next = new Booking();
+        next.setId(2L);
+        next.setStart(LocalDateTime.now().plusDays(1));
+        next.setEnd(LocalDateTime.now().plusDays(2));
+        next.setItem(item);
+        next.setBooker(booker);
+        when(bookingTimelineCache.get(item.getId()))
+                .thenReturn(BookingTimeline.of(item.getId(), List.of(next, booking)));
+
+        CommentView comment = mock(CommentView.class);
+        when(comment.getId()).thenReturn(1L);
+        when(comment.getTotal()).thenReturn(12L);
+        when(commentRepository.findLatestByItemIdIn(List.of(item.getId()), EMBEDDED_COMMENTS))
+                .thenReturn(List.of(comment));
+
+        ItemInfoDto actual = reader.read(item.getId(), owner.getId()).orElseThrow();
+
+        assertEquals(item.getId(), actual.getId());
+        assertEquals(item.getOwner().getId(), actual.getOwner());
+        assertEquals(booking.getId(), actual.getLastBooking().getId());
+        assertEquals(next.getId(), actual.getNextBooking().getId());
+        assertEquals(1, actual.getComments().size());
+        assertEquals(1L, actual.getComments().get(0).getId());
+        assertEquals(12L, actual.getCommentCount());
+    }
+
+    @Test
+    public void readNotOwner() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.ofNullable(item));
+
+        ItemInfoDto actual = reader.read(item.getId(), booker.getId()).orElseThrow();
+
+        assertEquals(item.getId(), actual.getId());
+        assertEquals(item.getOwner().getId(), actual.getOwner());
+        assertNull(actual.getLastBooking());
+        assertNull(actual.getNextBooking());
+        assertEquals(Collections.emptyList(), actual.getComments());
+        assertEquals(0L, actual.getCommentCount());
+    }
+
+    @Test
+    public void readNotFoundItem() {
+        when(itemRepository.findById(99L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(reader.read(99L, booker.getId()).isEmpty());
+    }
+
+    @Test
+    public void readLastNotNull() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.ofNullable(item));
+        when(bookingTimelineCache.get(item.getId()))
+                .thenReturn(BookingTimeline.of(item.getId(), List.of(booking)));
+
+        ItemInfoDto actual = reader.read(item.getId(), owner.getId()).orElseThrow();
+
+        assertEquals(booking.getId(), actual.getLastBooking().getId());
+        assertNull(actual.getNextBooking());
+    }
+
+    @Test
+    public void readNextNotNull() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.ofNullable(item));
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        when(bookingTimelineCache.get(item.getId()))
+                .thenReturn(BookingTimeline.of(item.getId(), List.of(booking)));
+
+        ItemInfoDto actual = reader.read(item.getId(), owner.getId()).orElseThrow();
+
+        assertEquals(booking.getId(), actual.getNextBooking().getId());
+        assertNull(actual.getLastBooking());
+    }
+
+    @Test
+    public void readNotOwnerCheckLastNext() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.ofNullable(item));
+
+        ItemInfoDto actual = reader.read(item.getId(), booker.getId()).orElseThrow();
+
+        assertNull(actual.getLastBooking());
+        assertNull(actual.getNextBooking());
+    }
+}
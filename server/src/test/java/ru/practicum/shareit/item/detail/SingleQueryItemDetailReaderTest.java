@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.detail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SingleQueryItemDetailReaderTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemDetailView view;
+    private SingleQueryItemDetailReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new SingleQueryItemDetailReader(itemRepository, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    public void readMapsBookingsAndComments() {
+        stubItem();
+        when(view.getLastBookingId()).thenReturn(3L);
+        when(view.getLastBookerId()).thenReturn(2L);
+        when(view.getNextBookingId()).thenReturn(4L);
+        when(view.getNextBookerId()).thenReturn(5L);
+        when(view.getCommentCount()).thenReturn(12L);
+        when(view.getComments()).thenReturn("[{\"id\": 7, \"text\": \"Отличная вещь\", \"authorName\": \"Booker\", " +
+                "\"created\": \"2023-03-01T12:00:00\"}]");
+        when(itemRepository.findDetail(eq(1L), eq(1L), any(), eq(10)))
+                .thenReturn(Optional.of(view));
+
+        ItemInfoDto actual = reader.read(1L, 1L).orElseThrow();
+
+        assertEquals("Дрель", actual.getName());
+        assertEquals(3L, actual.getLastBooking().getId());
+        assertEquals(2L, actual.getLastBooking().getBookerId());
+        assertEquals(1L, actual.getLastBooking().getItemId());
+        assertEquals(4L, actual.getNextBooking().getId());
+        assertEquals(1, actual.getComments().size());
+        assertEquals(12L, actual.getCommentCount());
+        assertEquals("Booker", actual.getComments().get(0).getAuthorName());
+        assertEquals(LocalDateTime.of(2023, 3, 1, 12, 0), actual.getComments().get(0).getCreated());
+    }
+
+    @Test
+    public void readWithoutBookingsAndComments() {
+        stubItem();
+        when(view.getLastBookingId()).thenReturn(null);
+        when(view.getNextBookingId()).thenReturn(null);
+        when(itemRepository.findDetail(eq(1L), eq(2L), any(), eq(10)))
+                .thenReturn(Optional.of(view));
+
+        ItemInfoDto actual = reader.read(1L, 2L).orElseThrow();
+
+        assertNull(actual.getLastBooking());
+        assertNull(actual.getNextBooking());
+        assertEquals(Collections.emptyList(), actual.getComments());
+    }
+
+    @Test
+    public void readAbsentItem() {
+        when(itemRepository.findDetail(eq(99L), eq(1L), any(), eq(10)))
+                .thenReturn(Optional.empty());
+
+        assertTrue(reader.read(99L, 1L).isEmpty());
+    }
+
+    private void stubItem() {
+        when(view.getId()).thenReturn(1L);
+        when(view.getName()).thenReturn("Дрель");
+        when(view.getOwner()).thenReturn(1L);
+    }
+}
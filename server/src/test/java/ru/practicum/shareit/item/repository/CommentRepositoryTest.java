@@ -5,7 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -14,7 +15,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @DataJpaTest
 class CommentRepositoryTest {
@@ -87,56 +87,49 @@ class CommentRepositoryTest {
     }
 
     @Test
-    public void findAllByItemIdTest() {
-        Comment comment = new Comment();
-        comment.setAuthor(user);
-        comment.setItem(item2);
-        comment.setText("все отлично. рекомендую.");
-        comment.setCreated(LocalDateTime.now());
-
-        Comment comment2 = new Comment();
-        comment2.setAuthor(user2);
-        comment2.setItem(item);
-        comment2.setText("не понравилось.");
-        comment2.setCreated(LocalDateTime.now());
-
-        List<Comment> actual = commentRepository.findAllByItemId(item.getId());
-        assertEquals(0, actual.size());
-        em.persist(comment);
-        em.persist(comment2);
-        actual = commentRepository.findAllByItemId(item2.getId());
-        assertEquals(1, actual.size());
-        assertEquals(comment.getId(), actual.get(0).getId());
+    public void findLatestByItemIdInTest() {
+        LocalDateTime created = LocalDateTime.of(2023, 3, 1, 12, 0);
+        for (int i = 0; i < 3; i++) {
+            em.persist(comment(item, user2, created.plusHours(i)));
+        }
+        Comment other = em.persist(comment(item2, user, created));
+
+        List<CommentView> actual = commentRepository.findLatestByItemIdIn(List.of(item.getId(), item2.getId()), 2);
+
+        assertEquals(3, actual.size());
+        assertEquals(item.getId(), actual.get(0).getItemId());
+        assertEquals(created.plusHours(2), actual.get(0).getCreated());
+        assertEquals(created.plusHours(1), actual.get(1).getCreated());
+        assertEquals(3L, actual.get(0).getTotal());
+        assertEquals(user2.getName(), actual.get(0).getAuthorName());
+        assertEquals(other.getId(), actual.get(2).getId());
+        assertEquals(1L, actual.get(2).getTotal());
+    }
 
-        actual = commentRepository.findAllByItemId(item.getId());
+    @Test
+    public void findPageAndPageAfterTest() {
+        LocalDateTime created = LocalDateTime.of(2023, 3, 1, 12, 0);
+        Comment first = em.persist(comment(item, user2, created));
+        Comment second = em.persist(comment(item, user2, created));
+        Comment third = em.persist(comment(item, user2, created.plusHours(1)));
+
+        List<CommentDto> actual = commentRepository.findPage(item.getId(), PageRequest.of(0, 2));
+        assertEquals(2, actual.size());
+        assertEquals(third.getId(), actual.get(0).getId());
+        assertEquals(second.getId(), actual.get(1).getId());
+        assertEquals(user2.getName(), actual.get(0).getAuthorName());
+
+        actual = commentRepository.findPageAfter(item.getId(), second.getCreated(), second.getId(), PageRequest.of(0, 2));
         assertEquals(1, actual.size());
-        assertEquals(comment2.getId(), actual.get(0).getId());
+        assertEquals(first.getId(), actual.get(0).getId());
     }
 
-    @Test
-    public void findByItemInTest() {
+    private Comment comment(Item item, User author, LocalDateTime created) {
         Comment comment = new Comment();
-        comment.setAuthor(user);
-        comment.setItem(item2);
+        comment.setAuthor(author);
+        comment.setItem(item);
         comment.setText("все отлично. рекомендую.");
-        comment.setCreated(LocalDateTime.now());
-
-        Comment comment2 = new Comment();
-        comment2.setAuthor(user2);
-        comment2.setItem(item);
-        comment2.setText("не понравилось.");
-        comment2.setCreated(LocalDateTime.now());
-
-        List<Comment> actual = commentRepository.findByItemIn(List.of(item), Sort.by(DESC, "id"));
-        assertEquals(0, actual.size());
-        em.persist(comment);
-        em.persist(comment2);
-        actual = commentRepository.findByItemIn(List.of(item2), Sort.by(DESC, "id"));
-        assertEquals(1, actual.size());
-        assertEquals(comment.getId(), actual.get(0).getId());
-
-        actual = commentRepository.findByItemIn(List.of(item), Sort.by(DESC, "id"));
-        assertEquals(1, actual.size());
-        assertEquals(comment2.getId(), actual.get(0).getId());
+        comment.setCreated(created);
+        return comment;
     }
-}
\ No newline at end of file
+}
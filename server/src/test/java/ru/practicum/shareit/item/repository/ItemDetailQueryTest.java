@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.detail.ItemDetailView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link ItemRepository#findDetail} on PostgreSQL, which H2 cannot parse.
+ * Excluded from the build, run against a disposable database with
+ * {@code DB_HOST=... DB_PORT=... DB_NAME=... POSTGRES_USER=... POSTGRES_PASSWORD=... mvn -pl server test -Ppostgres}.
+ * The schema is recreated on start.
+ */
+@Tag("postgres")
+@DataJpaTest
+@ActiveProfiles("dev")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ItemDetailQueryTest {
+    private final LocalDateTime now = LocalDateTime.of(2023, 3, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemRepository itemRepository;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking last;
+    private Booking next;
+
+    @BeforeEach
+    public void setUp() {
+        owner = new User();
+        owner.setName("User");
+        owner.setEmail("mail@mail.ru");
+        em.persist(owner);
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@mail.ru");
+        em.persist(booker);
+
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Новая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persist(item);
+
+        booking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        last = booking(now.minusDays(1), now.plusHours(1), BookingStatus.APPROVED);
+        booking(now.plusHours(2), now.plusHours(3), BookingStatus.REJECTED);
+        next = booking(now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        booking(now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.setText("Комментарий " + i);
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setCreated(now.minusHours(3 - i));
+            em.persist(comment);
+        }
+        em.flush();
+    }
+
+    @Test
+    public void findDetailForOwnerTest() {
+        ItemDetailView view = itemRepository.findDetail(item.getId(), owner.getId(), now, 2).orElseThrow();
+
+        assertEquals(item.getId(), view.getId());
+        assertEquals("Дрель", view.getName());
+        assertEquals("Новая дрель", view.getDescription());
+        assertTrue(view.getAvailable());
+        assertEquals(owner.getId(), view.getOwner());
+        assertEquals(last.getId(), view.getLastBookingId());
+        assertEquals(booker.getId(), view.getLastBookerId());
+        assertEquals(next.getId(), view.getNextBookingId());
+        assertEquals(booker.getId(), view.getNextBookerId());
+        assertEquals(3L, view.getCommentCount());
+        assertTrue(view.getComments().startsWith("[{\"id\""));
+        assertTrue(view.getComments().contains("\"authorName\" : \"Booker\""));
+        assertTrue(view.getComments().indexOf("Комментарий 2") < view.getComments().indexOf("Комментарий 1"));
+        assertFalse(view.getComments().contains("Комментарий 0"));
+    }
+
+    @Test
+    public void findDetailForOtherUserTest() {
+        ItemDetailView view = itemRepository.findDetail(item.getId(), booker.getId(), now, 2).orElseThrow();
+
+        assertNull(view.getLastBookingId());
+        assertNull(view.getNextBookingId());
+        assertEquals(3L, view.getCommentCount());
+    }
+
+    @Test
+    public void findDetailAbsentItemTest() {
+        assertTrue(itemRepository.findDetail(item.getId() + 100, owner.getId(), now, 2).isEmpty());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setOwnerId(owner.getId());
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return em.persist(booking);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.Request;
@@ -103,6 +104,21 @@ class ItemRepositoryTest {
         assertEquals(item2.getName(), actual.getContent().get(1).getName());
     }
 
+    @Test
+    public void findTextAfterTest() {
+        PageRequest page = PageRequest.of(0, 1);
+
+        Slice<Item> actual = itemRepository.findTextAfter("р", 0L, page);
+        assertEquals(1, actual.getContent().size());
+        assertEquals(item.getName(), actual.getContent().get(0).getName());
+        assertTrue(actual.hasNext());
+
+        actual = itemRepository.findTextAfter("р", item.getId(), page);
+        assertEquals(1, actual.getContent().size());
+        assertEquals(item2.getName(), actual.getContent().get(0).getName());
+        assertFalse(actual.hasNext());
+    }
+
     @Test
     public void findAllByRequestOrderByRequestCreatedDescTest() {
         Request request = new Request();
@@ -145,4 +161,10 @@ class ItemRepositoryTest {
         assertEquals(1, actual.size());
         assertEquals(item.getName(), actual.get(0).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findAllByIdForUpdateTest() {
+        List<Item> actual = itemRepository.findAllByIdForUpdate(List.of(item2.getId(), 99L, item.getId()));
+        assertEquals(List.of(item, item2), actual);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class InMemoryItemSearchEngineTest {
+    private static final List<String> WORDS = List.of(
+            "дрель", "Отвертка", "крестовая", "аккумуляторная", "DeWalt", "Bosch", "пила", "ножовка",
+            "молоток", "новый", "б/у", "в", "отличном", "состоянии", "набор", "бит", "x2", "ёлка", "Ы");
+    private final PageRequest all = PageRequest.of(0, 1000);
+    private final Random random = new Random(42);
+    private final List<String> texts = new ArrayList<>();
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setName("User");
+        user.setEmail("mail@mail.ru");
+        em.persist(user);
+
+        for (int i = 0; i < 300; i++) {
+            Item item = new Item();
+            item.setName(randomText(1 + random.nextInt(2)));
+            item.setDescription(randomText(1 + random.nextInt(6)));
+            item.setAvailable(random.nextInt(5) > 0);
+            item.setOwner(user);
+            em.persist(item);
+            texts.add(item.getName());
+            texts.add(item.getDescription());
+        }
+        em.flush();
+    }
+
+    @Test
+    public void trigramIndexMatchesFindText() {
+        TrigramItemSearchIndex index = new TrigramItemSearchIndex(itemRepository);
+        index.load();
+        assertSameResults(index);
+    }
+
+    @Test
+    public void wordIndexMatchesFindText() {
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository);
+        index.load();
+        assertSameResults(index);
+    }
+
+    private void assertSameResults(InMemoryItemSearchEngine index) {
+        for (String query : queries()) {
+            List<Long> expected = itemRepository.findText(query, all).stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.findIds(query, all), "query: " + query);
+        }
+    }
+
+    private Set<String> queries() {
+        Set<String> queries = new LinkedHashSet<>(List.of("р", "ы", "ЁЛ", "ая, в", "x", "/", "новый дрель"));
+        for (int i = 0; i < 200; i++) {
+            String text = texts.get(random.nextInt(texts.size()));
+            int start = random.nextInt(text.length());
+            int end = Math.min(text.length(), start + 1 + random.nextInt(8));
+            String query = text.substring(start, end);
+            queries.add(random.nextBoolean() ? query.toLowerCase() : query.toUpperCase());
+        }
+        return queries;
+    }
+
+    private String randomText(int words) {
+        StringJoiner joiner = new StringJoiner(random.nextBoolean() ? " " : ", ");
+        for (int i = 0; i < words; i++) {
+            joiner.add(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameSuggesterTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private ItemNameSuggester suggester;
+
+    @Test
+    public void loadReadsAvailableItems() {
+        Item item = new Item();
+        item.setId(7L);
+        item.setName("Пила");
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(item));
+
+        suggester.load();
+
+        assertEquals(List.of("Пила"), suggester.suggest("пи", 10));
+    }
+
+    @Test
+    public void itemChangesUpdateSuggestions() {
+        ItemDto drill = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+        ItemDto hammerDrill = new ItemDto(1L, "Перфоратор", "Новая дрель", true, 1L, null);
+        ItemDto unavailable = new ItemDto(1L, "Перфоратор", "Новая дрель", false, 1L, null);
+
+        suggester.onItemChanged(new ItemChangedEvent(null, drill));
+        assertEquals(List.of("Дрель"), suggester.suggest("д", 10));
+
+        suggester.onItemChanged(new ItemChangedEvent(drill, hammerDrill));
+        assertEquals(Collections.emptyList(), suggester.suggest("д", 10));
+        assertEquals(List.of("Перфоратор"), suggester.suggest("пер", 10));
+
+        suggester.onItemChanged(new ItemChangedEvent(hammerDrill, unavailable));
+        assertEquals(Collections.emptyList(), suggester.suggest("пер", 10));
+
+        suggester.onItemChanged(new ItemChangedEvent(unavailable, null));
+        assertEquals(0, suggester.size());
+    }
+
+    @Test
+    public void addedItemsUpdateSuggestions() {
+        suggester.onItemsAdded(new ItemsAddedEvent(List.of(
+                new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null),
+                new ItemDto(2L, "Дрель", "Старая дрель", true, 1L, null),
+                new ItemDto(3L, "Долото", "Сломано", false, 1L, null))));
+
+        assertEquals(List.of("Дрель"), suggester.suggest("д", 10));
+        assertEquals(1, suggester.size());
+    }
+}
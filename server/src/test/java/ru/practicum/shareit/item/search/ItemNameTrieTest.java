@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemNameTrieTest {
+    private ItemNameTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new ItemNameTrie();
+        trie.add("Дрель");
+        trie.add("Дрель ударная");
+        trie.add("Дрель");
+        trie.add("Дрезина");
+        trie.add("Отвертка");
+    }
+
+    @Test
+    public void completeOrdersByCountThenName() {
+        assertEquals(List.of("Дрель", "Дрезина", "Дрель ударная"), trie.complete("дре", 10));
+        assertEquals(List.of("Дрель", "Дрель ударная"), trie.complete("ДРЕЛЬ", 10));
+        assertEquals(List.of("Дрель ударная"), trie.complete("дрель у", 10));
+        assertEquals(List.of("Дрель"), trie.complete("д", 1));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    public void completeUnknownPrefix() {
+        assertEquals(Collections.emptyList(), trie.complete("пила", 10));
+        assertEquals(Collections.emptyList(), trie.complete("дрезинах", 10));
+        assertEquals(Collections.emptyList(), trie.complete("дру", 10));
+    }
+
+    @Test
+    public void removeDecrementsAndMergesNodes() {
+        trie.remove("Дрель");
+        assertEquals(List.of("Дрезина", "Дрель", "Дрель ударная"), trie.complete("дре", 10));
+
+        trie.remove("Дрель");
+        trie.remove("Дрезина");
+        trie.remove("Пила");
+        assertEquals(List.of("Дрель ударная"), trie.complete("др", 10));
+        assertEquals(2, trie.size());
+
+        trie.add("Дрезина");
+        assertEquals(List.of("Дрезина", "Дрель ударная"), trie.complete("дре", 10));
+    }
+
+    @Test
+    public void completeMatchesBruteForce() {
+        Random random = new Random(42);
+        TreeMap<String, Integer> counts = new TreeMap<>();
+        for (int i = 0; i < 2000; i++) {
+            String name = randomName(random);
+            if (random.nextInt(4) == 0 && counts.containsKey(name)) {
+                trie.remove(name);
+                counts.merge(name, -1, Integer::sum);
+                counts.remove(name, 0);
+            } else {
+                trie.add(name);
+                counts.merge(name, 1, Integer::sum);
+            }
+        }
+        counts.merge("ДРЕЛЬ", 2, Integer::sum);
+        counts.merge("ДРЕЛЬ УДАРНАЯ", 1, Integer::sum);
+        counts.merge("ДРЕЗИНА", 1, Integer::sum);
+        counts.merge("ОТВЕРТКА", 1, Integer::sum);
+
+        for (String prefix : List.of("A", "AB", "BCA", "C", "ДР")) {
+            List<String> expected = counts.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .sorted((a, b) -> b.getValue().equals(a.getValue())
+                            ? a.getKey().compareTo(b.getKey()) : b.getValue() - a.getValue())
+                    .limit(5)
+                    .map(entry -> entry.getKey())
+                    .collect(Collectors.toList());
+            List<String> actual = trie.complete(prefix, 5).stream()
+                    .map(String::toUpperCase)
+                    .collect(Collectors.toList());
+            assertEquals(expected, actual, prefix);
+        }
+        assertEquals(counts.size(), trie.size());
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('A' + random.nextInt(3)));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ItemSearchCacheTest {
+    private final PageRequest page = PageRequest.of(0, 10);
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(new LikeItemSearchEngine(mock(ItemRepository.class)), meterRegistry,
+                100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void sameNormalizedTextAndPageHitCache() {
+        assertEquals("drill", search("Дрель", page));
+        assertEquals("drill", search("дРЕЛЬ", page));
+        assertEquals(1, loads.get());
+
+        search("дрель", PageRequest.of(1, 10));
+        search("дрель", List.of(0L, 10));
+        assertEquals(3, loads.get());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ItemSearchCache.NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(3.0, meterRegistry.get("cache.gets").tag("cache", ItemSearchCache.NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void itemChangeEvictsMatchingQueriesOnly() {
+        search("дрель", page);
+        search("отвертка", page);
+        search("перфоратор", page);
+        ItemDto drill = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+        ItemDto hammerDrill = new ItemDto(1L, "Перфоратор", "Новая дрель", true, 1L, null);
+
+        cache.onItemChanged(new ItemChangedEvent(drill, hammerDrill));
+
+        assertEquals(1, cache.size());
+        search("отвертка", page);
+        assertEquals(3, loads.get());
+        search("перфоратор", page);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void addedItemsEvictMatchingQueriesOnly() {
+        search("дрель", page);
+        search("отвертка", page);
+        search("перфоратор", page);
+
+        cache.onItemsAdded(new ItemsAddedEvent(List.of(
+                new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null),
+                new ItemDto(2L, "Перфоратор", "Сломан", false, 1L, null),
+                new ItemDto(3L, "Отвертка", "Крестовая", true, 1L, null))));
+
+        assertEquals(1, cache.size());
+        search("перфоратор", page);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void unsearchableChangesKeepCache() {
+        search("дрель", page);
+        ItemDto drill = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+        ItemDto unavailable = new ItemDto(2L, "Дрель", "Сломана", false, 1L, null);
+
+        cache.onItemChanged(new ItemChangedEvent(drill, new ItemDto(1L, "Дрель", "Новая дрель", true, 2L, null)));
+        cache.onItemChanged(new ItemChangedEvent(null, unavailable));
+        cache.onItemChanged(new ItemChangedEvent(unavailable, null));
+
+        assertEquals(1, cache.size());
+        cache.onItemChanged(new ItemChangedEvent(drill, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void resultLoadedDuringChangeIsNotCached() {
+        ItemDto drill = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+
+        cache.get("отвертка", page, () -> {
+            cache.onItemChanged(new ItemChangedEvent(null, drill));
+            return "stale";
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    private String search(String text, Object page) {
+        return cache.get(text, page, () -> {
+            loads.incrementAndGet();
+            return "drill";
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+    private final PageRequest page = PageRequest.of(0, 10);
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository);
+        index.put(1L, "Дрель", "Новая дрель");
+        index.put(2L, "Отвертка", "Отвертка крестовая");
+        index.put(3L, "Дрель 'DeWalt'", "Аккумуляторная, в отличном состоянии");
+    }
+
+    @Test
+    public void searchIsCaseInsensitiveSubstring() {
+        assertEquals(List.of(1L, 3L), index.findIds("дРЕль", page));
+        assertEquals(List.of(1L, 3L), index.findIds("дрел", page));
+        assertEquals(List.of(1L, 2L, 3L), index.findIds("р", page));
+        assertEquals(List.of(2L), index.findIds("ТКА КРЕСТ", page));
+    }
+
+    @Test
+    public void searchMatchesAcrossDelimiters() {
+        assertEquals(List.of(3L), index.findIds("'dewalt'", page));
+        assertEquals(List.of(3L), index.findIds("ная, в", page));
+        assertEquals(List.of(3L), index.findIds("'", page));
+    }
+
+    @Test
+    public void searchRequiresWholeQueryToMatch() {
+        assertEquals(Collections.emptyList(), index.findIds("новая отвертка", page));
+        assertEquals(Collections.emptyList(), index.findIds("перфоратор", page));
+    }
+
+    @Test
+    public void searchPages() {
+        assertEquals(List.of(1L, 2L), index.findIds("р", PageRequest.of(0, 2)));
+        assertEquals(List.of(3L), index.findIds("р", PageRequest.of(1, 2)));
+    }
+
+    @Test
+    public void searchAfterId() {
+        Item third = new Item();
+        third.setId(3L);
+        when(itemRepository.findAllById(List.of(3L)))
+                .thenReturn(List.of(third));
+
+        Slice<Item> actual = index.searchAfter("р", 2L, 1);
+
+        assertEquals(List.of(third), actual.getContent());
+        assertFalse(actual.hasNext());
+        assertEquals(List.of(2L, 3L), index.findIds("р", 1L, 0, 10));
+    }
+
+    @Test
+    public void itemChangesUpdateIndex() {
+        ItemDto drill = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+        ItemDto hammer = new ItemDto(1L, "Молоток", "Тяжелый", true, 1L, null);
+
+        index.onItemChanged(new ItemChangedEvent(drill, hammer));
+        assertEquals(List.of(3L), index.findIds("дрель", page));
+        assertEquals(List.of(1L), index.findIds("молот", page));
+
+        ItemDto unavailable = new ItemDto(1L, "Молоток", "Тяжелый", false, 1L, null);
+        index.onItemChanged(new ItemChangedEvent(hammer, unavailable));
+        assertEquals(Collections.emptyList(), index.findIds("молот", page));
+
+        ItemDto saw = new ItemDto(4L, "Пила", "Ножовка", true, 1L, null);
+        index.onItemChanged(new ItemChangedEvent(null, saw));
+        assertEquals(List.of(4L), index.findIds("нож", page));
+
+        index.onItemChanged(new ItemChangedEvent(saw, null));
+        assertEquals(Collections.emptyList(), index.findIds("нож", page));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void addedItemsAreIndexed() {
+        index.onItemsAdded(new ItemsAddedEvent(List.of(
+                new ItemDto(4L, "Пила", "Ножовка", true, 1L, null),
+                new ItemDto(5L, "Ножницы", "Сломаны", false, 1L, null),
+                new ItemDto(6L, "Нож", "Складной", true, 1L, null))));
+
+        assertEquals(List.of(4L, 6L), index.findIds("нож", page));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void searchLoadsItemsInIdOrder() {
+        Item first = new Item();
+        first.setId(1L);
+        Item third = new Item();
+        third.setId(3L);
+        when(itemRepository.findAllById(List.of(1L, 3L)))
+                .thenReturn(List.of(third, first));
+
+        List<Item> actual = index.search("дрель", page);
+
+        assertEquals(2, actual.size());
+        assertEquals(1L, actual.get(0).getId());
+        assertEquals(3L, actual.get(1).getId());
+    }
+
+    @Test
+    public void loadReadsAvailableItemsInChunks() {
+        Item item = new Item();
+        item.setId(7L);
+        item.setName("Пила");
+        item.setDescription("Ножовка по дереву");
+        item.setAvailable(true);
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(item));
+
+        ItemSearchIndex loaded = new ItemSearchIndex(itemRepository);
+        loaded.load();
+
+        assertEquals(1, loaded.size());
+        assertEquals(List.of(7L), loaded.findIds("дерев", page));
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LikeItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private LikeItemSearchEngine engine;
+
+    @Test
+    public void searchUsesFindText() {
+        Item item = new Item();
+        item.setId(1L);
+        PageRequest page = PageRequest.of(0, 10);
+        when(itemRepository.findText("дрель", page))
+                .thenReturn(new PageImpl<>(List.of(item)));
+
+        assertEquals(List.of(item), engine.search("дрель", page));
+    }
+
+    @Test
+    public void searchAfterUsesKeysetQuery() {
+        Item item = new Item();
+        item.setId(2L);
+        PageRequest page = PageRequest.of(0, 10);
+        Slice<Item> slice = new SliceImpl<>(List.of(item), page, false);
+        when(itemRepository.findTextAfter("дрель", 1L, page))
+                .thenReturn(slice);
+
+        assertEquals(slice, engine.searchAfter("дрель", 1L, 10));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TermDictionaryTest {
+    private TermDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new TermDictionary();
+        dictionary.add("ДРЕЛЬ");
+        dictionary.add("ДРЕЛИ");
+        dictionary.add("РЕЛЕ");
+        dictionary.add("ЁЛ");
+    }
+
+    @Test
+    public void shortTextIsLookedUpDirectly() {
+        assertEquals(Set.of("ДРЕЛЬ", "ДРЕЛИ", "РЕЛЕ"), containing("Р"));
+        assertEquals(Set.of("ДРЕЛЬ", "ДРЕЛИ", "РЕЛЕ"), containing("РЕЛ"));
+        assertEquals(Set.of("ЁЛ"), containing("ЁЛ"));
+        assertEquals(Set.of(), containing("Ы"));
+    }
+
+    @Test
+    public void longTextIsCheckedAgainstTermsOfItsRarestTrigram() {
+        assertEquals(Set.of("ДРЕЛЬ", "ДРЕЛИ"), containing("ДРЕЛ"));
+        assertEquals(Set.of("ДРЕЛЬ"), containing("ДРЕЛЬ"));
+        assertEquals(Set.of(), containing("ДРЕЛЕ"));
+        assertEquals(Set.of(), containing("ДРЕЛЬЩИК"));
+    }
+
+    @Test
+    public void removedTermsAreNotFound() {
+        dictionary.remove("ДРЕЛЬ");
+        dictionary.remove("ЁЛ");
+
+        assertEquals(Set.of("ДРЕЛИ"), containing("ДРЕЛ"));
+        assertEquals(Set.of(), containing("Ё"));
+
+        dictionary.remove("ДРЕЛИ");
+        dictionary.remove("РЕЛЕ");
+        assertEquals(0, dictionary.size());
+    }
+
+    private Set<String> containing(String text) {
+        return new HashSet<>(dictionary.containing(text));
+    }
+}
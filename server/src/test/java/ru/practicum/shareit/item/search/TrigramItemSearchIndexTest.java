@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private TrigramItemSearchIndex index;
+    private final PageRequest page = PageRequest.of(0, 10);
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramItemSearchIndex(itemRepository);
+        index.put(1L, "Дрель", "Новая дрель");
+        index.put(2L, "Отвертка", "Отвертка крестовая");
+        index.put(3L, "Ы", "Аккумуляторная, в отличном состоянии");
+    }
+
+    @Test
+    public void searchLongQueryByTrigrams() {
+        assertEquals(List.of(1L), index.findIds("дрел", page));
+        assertEquals(List.of(2L), index.findIds("ТКА КРЕСТ", page));
+        assertEquals(List.of(3L), index.findIds("ная, в", page));
+        assertEquals(Collections.emptyList(), index.findIds("дрелька", page));
+    }
+
+    @Test
+    public void searchShortQuery() {
+        assertEquals(List.of(1L, 2L, 3L), index.findIds("р", page));
+        assertEquals(List.of(3L), index.findIds("ы", page));
+        assertEquals(List.of(1L), index.findIds("ЕЛ", page));
+        assertEquals(Collections.emptyList(), index.findIds("щ", page));
+    }
+
+    @Test
+    public void searchVerifiesCandidates() {
+        index.put(4L, "Абв", "Вгд");
+        assertEquals(Collections.emptyList(), index.findIds("бвг", page));
+        assertEquals(List.of(4L), index.findIds("вгд", page));
+    }
+
+    @Test
+    public void itemChangesUpdateIndex() {
+        ItemDto drill = new ItemDto(1L, "Дрель", "Новая дрель", true, 1L, null);
+        ItemDto hammer = new ItemDto(1L, "Молоток", "Тяжелый", true, 1L, null);
+
+        index.onItemChanged(new ItemChangedEvent(drill, hammer));
+        assertEquals(Collections.emptyList(), index.findIds("дрел", page));
+        assertEquals(List.of(1L), index.findIds("олот", page));
+
+        index.onItemChanged(new ItemChangedEvent(hammer, null));
+        assertEquals(Collections.emptyList(), index.findIds("олот", page));
+        assertEquals(2, index.size());
+    }
+}
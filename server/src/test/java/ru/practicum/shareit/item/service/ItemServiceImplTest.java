@@ -6,33 +6,62 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.detail.ItemDetailCache;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
-import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsAddedEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentView;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.utility.ItemMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.Cursor;
+import ru.practicum.shareit.utility.SliceDto;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.utility.Constants.EMBEDDED_COMMENTS;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
@@ -45,14 +74,29 @@ class ItemServiceImplTest {
     @Mock
     BookingRepository bookingRepository;
     @Mock
+    private BookingTimelineCache bookingTimelineCache;
+    @Mock
+    private BookingAvailabilityIndex bookingAvailabilityIndex;
+    @Mock
     CommentRepository commentRepository;
+    @Mock
+    private ItemDetailCache itemDetailCache;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    ItemSearchCache itemSearchCache;
+    @Mock
+    ItemNameSuggester itemNameSuggester;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    EntityManager entityManager;
     @InjectMocks
     private ItemServiceImpl itemService;
     private User owner;
     private User booker;
     private Item item;
     private Booking booking;
-    private Comment comment;
 
     @BeforeEach
     void setUp() {
@@ -80,95 +124,63 @@ class ItemServiceImplTest {
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.WAITING);
-
-        comment = new Comment();
-        comment.setId(1L);
-        comment.setItem(item);
-        comment.setAuthor(booker);
-        comment.setText("Отличная вещь");
-    }
-
-    @Test
-    public void getItemByIdOwner() {
-        when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.ofNullable(item));
-
-        when(bookingRepository.findLastBooking(item.getId()))
-                .thenReturn(booking);
-
-        when(bookingRepository.findNextBooking(item.getId()))
-                .thenReturn(booking);
-
-        when(commentRepository.findAllByItemId(item.getId()))
-                .thenReturn(List.of(comment));
-
-        ItemInfoDto actual = itemService.getItemById(item.getId(), owner.getId());
-
-        assertEquals(item.getId(), actual.getId());
-        assertEquals(item.getOwner().getId(), actual.getOwner());
-        assertEquals(booking.getId(), actual.getLastBooking().getId());
-        assertEquals(booking.getId(), actual.getNextBooking().getId());
-        assertEquals(1, actual.getComments().size());
-        assertEquals(1L, actual.getComments().get(0).getId());
     }
 
     @Test
-    public void getItemByIdNotOwner() {
-        when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.ofNullable(item));
-
-        ItemInfoDto actual = itemService.getItemById(item.getId(), booker.getId());
+    public void getItemByIdUsesDetailCache() {
+        ItemInfoDto itemInfoDto = ItemMapper.mapToItemInfoDto(item);
+        when(itemDetailCache.get(item.getId(), owner.getId()))
+                .thenReturn(Optional.of(itemInfoDto));
 
-        assertEquals(item.getId(), actual.getId());
-        assertEquals(item.getOwner().getId(), actual.getOwner());
-        assertNull(actual.getLastBooking());
-        assertNull(actual.getNextBooking());
-        assertEquals(Collections.emptyList(), actual.getComments());
+        assertSame(itemInfoDto, itemService.getItemById(item.getId(), owner.getId()));
     }
 
     @Test
     public void getItemByIdNotFoundItem() {
-        when(itemRepository.findById(99L))
-                .thenThrow(NotFoundException.class);
+        when(itemDetailCache.get(99L, booker.getId()))
+                .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.getItemById(99L, booker.getId()));
     }
 
     @Test
-    public void getItemByIdLastNotNull() {
+    public void getItemAvailabilityStartsNow() {
         when(itemRepository.findById(item.getId()))
                 .thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.findLastBooking(item.getId()))
-                .thenReturn(booking);
-
-        ItemInfoDto actual = itemService.getItemById(item.getId(), owner.getId());
-
-        assertEquals(booking.getId(), actual.getLastBooking().getId());
-        assertNull(actual.getNextBooking());
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        when(bookingTimelineCache.get(item.getId()))
+                .thenReturn(BookingTimeline.of(item.getId(), List.of(booking)));
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(3);
+
+        List<FreeIntervalDto> actual = itemService.getItemAvailability(item.getId(), from, to);
+
+        assertEquals(2, actual.size());
+        assertTrue(actual.get(0).getStart().isAfter(from));
+        assertEquals(booking.getStart(), actual.get(0).getEnd());
+        assertEquals(booking.getEnd(), actual.get(1).getStart());
+        assertEquals(to, actual.get(1).getEnd());
     }
 
     @Test
-    public void getItemByIdNextNotNull() {
+    public void getItemAvailabilityInPast() {
         when(itemRepository.findById(item.getId()))
                 .thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.findNextBooking(item.getId()))
-                .thenReturn(booking);
 
-        ItemInfoDto actual = itemService.getItemById(item.getId(), owner.getId());
+        List<FreeIntervalDto> actual = itemService.getItemAvailability(item.getId(),
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
 
-        assertEquals(booking.getId(), actual.getNextBooking().getId());
-        assertNull(actual.getLastBooking());
+        assertEquals(Collections.emptyList(), actual);
+        verifyNoInteractions(bookingTimelineCache);
     }
 
     @Test
-    public void getItemByIdNotOwnerCheckLastNext() {
-        when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.ofNullable(item));
+    public void getItemAvailabilityWrongPeriod() {
+        LocalDateTime time = LocalDateTime.now().plusDays(1);
 
-        ItemInfoDto actual = itemService.getItemById(item.getId(), booker.getId());
-
-        assertNull(actual.getLastBooking());
-        assertNull(actual.getNextBooking());
+        assertThrows(IllegalArgumentException.class, () -> itemService.getItemAvailability(item.getId(), time, time));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -179,6 +191,82 @@ class ItemServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemService.getItemsByUserId(99L, 0, 10));
     }
 
+    @Test
+    public void getItemsByUserIdSetsLastAndNextPerItem() {
+        when(userService.getUser(owner.getId()))
+                .thenReturn(owner);
+        Item other = new Item();
+        other.setId(2L);
+        other.setName("Отвертка");
+        other.setOwner(owner);
+        when(itemRepository.findAllByOwnerOrderById(eq(owner), any()))
+                .thenReturn(new PageImpl<>(List.of(item, other)));
+        Booking next = new Booking();
+        next.setId(2L);
+        next.setStart(LocalDateTime.now().plusDays(1));
+        next.setItem(other);
+        next.setBooker(booker);
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(1L, 2L)), any()))
+                .thenReturn(List.of(booking, next));
+
+        List<ItemInfoDto> actual = itemService.getItemsByUserId(owner.getId(), 0, 10);
+
+        assertEquals(booking.getId(), actual.get(0).getLastBooking().getId());
+        assertNull(actual.get(0).getNextBooking());
+        assertNull(actual.get(1).getLastBooking());
+        assertEquals(next.getId(), actual.get(1).getNextBooking().getId());
+    }
+
+    @Test
+    public void streamItemsByUserIdReadsChunks() {
+        when(userService.getUser(owner.getId()))
+                .thenReturn(owner);
+        List<Item> chunk = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Item next = new Item();
+            next.setId(id);
+            next.setName("Дрель " + id);
+            next.setOwner(owner);
+            chunk.add(next);
+        }
+        when(itemRepository.findAllByOwnerAndIdGreaterThanOrderById(eq(owner), eq(0L), any()))
+                .thenReturn(chunk);
+        when(itemRepository.findAllByOwnerAndIdGreaterThanOrderById(eq(owner), eq(100L), any()))
+                .thenReturn(List.of(item));
+        CommentView latest = mock(CommentView.class);
+        when(latest.getItemId()).thenReturn(item.getId());
+        when(latest.getTotal()).thenReturn(12L);
+        when(commentRepository.findLatestByItemIdIn(any(), eq(EMBEDDED_COMMENTS)))
+                .thenReturn(Collections.emptyList(), List.of(latest));
+
+        List<ItemInfoDto> actual = new ArrayList<>();
+        itemService.streamItemsByUserId(owner.getId(), actual::add);
+
+        assertEquals(101, actual.size());
+        assertEquals(1, actual.get(100).getComments().size());
+        assertEquals(12L, actual.get(100).getCommentCount());
+        assertEquals(0L, actual.get(0).getCommentCount());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void streamSearchItemsReadsSlices() {
+        Item second = new Item();
+        second.setId(2L);
+        second.setOwner(owner);
+        when(itemSearchEngine.searchAfter("text", 0L, 100))
+                .thenReturn(new SliceImpl<>(List.of(item), PageRequest.of(0, 100), true));
+        when(itemSearchEngine.searchAfter("text", item.getId(), 100))
+                .thenReturn(new SliceImpl<>(List.of(second), PageRequest.of(0, 100), false));
+
+        List<ItemDto> actual = new ArrayList<>();
+        itemService.streamSearchItems("text", actual::add);
+        itemService.streamSearchItems(" ", actual::add);
+
+        assertEquals(2, actual.size());
+        assertEquals(second.getId(), actual.get(1).getId());
+    }
+
     @Test
     public void searchItemsBlankText() {
         List<ItemDto> actual = itemService.searchItems("", 0, 10);
@@ -193,15 +281,158 @@ class ItemServiceImplTest {
 
     @Test
     public void searchItems() {
-        final Page<Item> page = new PageImpl<>(List.of(item));
-        when(itemRepository.findText(any(), any()))
-                .thenReturn(page);
+        passThroughCache();
+        when(itemSearchEngine.search(any(), any()))
+                .thenReturn(List.of(item));
 
         List<ItemDto> actual = itemService.searchItems("text", 0, 10);
 
-        assertEquals(1, page.getContent().size(), actual.size());
-        assertEquals(page.getContent().get(0).getId(), actual.get(0).getId());
-        assertEquals(page.getContent().get(0).getName(), actual.get(0).getName());
+        assertEquals(1, actual.size());
+        assertEquals(item.getId(), actual.get(0).getId());
+        assertEquals(item.getName(), actual.get(0).getName());
+    }
+
+    @Test
+    public void searchItemsAfterCursor() {
+        passThroughCache();
+        when(itemSearchEngine.searchAfter("text", 5L, 1))
+                .thenReturn(new SliceImpl<>(List.of(item), PageRequest.of(0, 1), true));
+
+        SliceDto<ItemDto> actual = itemService.searchItems("text", Cursor.encode(5L), 1);
+
+        assertEquals(1, actual.getContent().size());
+        assertEquals(item.getId(), actual.getContent().get(0).getId());
+        assertEquals(item.getId(), Cursor.decodeLong(actual.getNext()));
+    }
+
+    @Test
+    public void searchItemsFirstAndLastSlice() {
+        passThroughCache();
+        when(itemSearchEngine.searchAfter("text", 0L, 10))
+                .thenReturn(new SliceImpl<>(List.of(item), PageRequest.of(0, 10), false));
+
+        SliceDto<ItemDto> actual = itemService.searchItems("text", "", 10);
+
+        assertEquals(1, actual.getContent().size());
+        assertNull(actual.getNext());
+    }
+
+    @Test
+    public void searchItemsReturnsCachedResult() {
+        List<ItemDto> cached = List.of(ItemMapper.mapToItemDto(item));
+        when(itemSearchCache.get(eq("text"), eq(PageRequest.of(1, 10)), any()))
+                .thenReturn(cached);
+
+        assertSame(cached, itemService.searchItems("text", 10, 10));
+        verifyNoInteractions(itemSearchEngine);
+    }
+
+    @Test
+    public void searchItemsAfterBlankText() {
+        SliceDto<ItemDto> actual = itemService.searchItems(" ", "", 10);
+
+        assertEquals(0, actual.getContent().size());
+        assertNull(actual.getNext());
+    }
+
+    @Test
+    public void searchItemsAfterInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchItems("text", "not a cursor", 10));
+    }
+
+    @Test
+    public void searchFreeItemsSkipsBookedItems() {
+        Item booked = new Item();
+        booked.setId(2L);
+        booked.setName("Дрель");
+        booked.setOwner(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingAvailabilityIndex.freeDuring(start, start.plusDays(1)))
+                .thenReturn(itemId -> itemId != 2L);
+        when(itemSearchEngine.searchAfter(eq("text"), eq(0L), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(item, booked), PageRequest.of(0, 2), false));
+
+        List<ItemDto> actual = itemService.searchItems("text", start, start.plusDays(1), 0, 10);
+
+        assertEquals(1, actual.size());
+        assertEquals(item.getId(), actual.get(0).getId());
+        verifyNoInteractions(itemSearchCache);
+    }
+
+    @Test
+    public void searchFreeItemsAfterCursor() {
+        Item second = new Item();
+        second.setId(3L);
+        second.setName("Дрель");
+        second.setOwner(owner);
+        when(bookingAvailabilityIndex.freeDuring(any(), any()))
+                .thenReturn(itemId -> true);
+        when(itemSearchEngine.searchAfter(eq("text"), eq(0L), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(item, second), PageRequest.of(0, 2), false));
+
+        SliceDto<ItemDto> actual = itemService.searchItems("text", LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), "", 1);
+
+        assertEquals(1, actual.getContent().size());
+        assertEquals(item.getId(), Cursor.decodeLong(actual.getNext()));
+    }
+
+    @Test
+    public void searchFreeItemsInPastOrInvalidPeriod() {
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+
+        assertEquals(0, itemService.searchItems("text", start, start.plusDays(1), 0, 10).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.searchItems("text", start, start, "", 10));
+        verifyNoInteractions(itemSearchEngine, bookingAvailabilityIndex);
+    }
+
+    @Test
+    public void getCommentsFirstSlice() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        LocalDateTime created = LocalDateTime.of(2023, 3, 1, 12, 0);
+        when(commentRepository.findPage(item.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(new CommentDto(3L, "Отлично", "Booker", created),
+                        new CommentDto(2L, "Хорошо", "Booker", created.minusDays(1))));
+
+        SliceDto<CommentDto> actual = itemService.getComments(item.getId(), "", 1);
+
+        assertEquals(1, actual.getContent().size());
+        assertEquals(3L, actual.getContent().get(0).getId());
+        assertEquals(Cursor.encode(created, 3L), actual.getNext());
+    }
+
+    @Test
+    public void getCommentsAfterCursor() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        LocalDateTime created = LocalDateTime.of(2023, 3, 1, 12, 0);
+        when(commentRepository.findPageAfter(item.getId(), created, 3L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(new CommentDto(2L, "Хорошо", "Booker", created.minusDays(1))));
+
+        SliceDto<CommentDto> actual = itemService.getComments(item.getId(), Cursor.encode(created, 3L), 10);
+
+        assertEquals(1, actual.getContent().size());
+        assertNull(actual.getNext());
+    }
+
+    @Test
+    public void getCommentsInvalidCursor() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.getComments(item.getId(), Cursor.encode("yesterday", 3L), 10));
+    }
+
+    @Test
+    public void suggestItems() {
+        when(itemNameSuggester.suggest("др", 5))
+                .thenReturn(List.of("Дрель"));
+
+        assertEquals(List.of("Дрель"), itemService.suggestItems("др", 5));
+        assertEquals(Collections.emptyList(), itemService.suggestItems(" ", 5));
     }
 
     @Test
@@ -216,6 +447,8 @@ class ItemServiceImplTest {
 
         assertEquals(item.getId(), actual.getId());
         assertEquals(item.getName(), actual.getName());
+        verify(eventPublisher).publishEvent(argThat((ItemChangedEvent event) ->
+                event.getPrevious() == null && event.getCurrent().getId().equals(item.getId())));
     }
 
     @Test
@@ -247,6 +480,71 @@ class ItemServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemService.addItem(99L, ItemMapper.mapToItemDto(item)));
     }
 
+    @Test
+    public void addItemsInBatch() {
+        Request request = new Request();
+        request.setId(11L);
+        when(userService.getUser(owner.getId()))
+                .thenReturn(owner);
+
+        when(itemRequestRepository.findAllById(Set.of(request.getId())))
+                .thenReturn(List.of(request));
+
+        when(itemRepository.saveAll(any()))
+                .thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    for (int i = 0; i < items.size(); i++) {
+                        items.get(i).setId(i + 1L);
+                    }
+                    return items;
+                });
+
+        ItemDto first = ItemMapper.mapToItemDto(item);
+        ItemDto second = ItemMapper.mapToItemDto(item);
+        second.setRequestId(request.getId());
+
+        List<Long> actual = itemService.addItems(owner.getId(), List.of(first, second, second));
+
+        assertEquals(List.of(1L, 2L, 3L), actual);
+        verify(itemRequestRepository).findAllById(Set.of(request.getId()));
+        verify(eventPublisher).publishEvent(argThat((ItemsAddedEvent event) -> event.getItems().size() == 3
+                && event.getItems().stream().allMatch(created -> created.getOwner().equals(owner.getId()))));
+    }
+
+    @Test
+    public void addItemsInBatchUnknownRequest() {
+        when(userService.getUser(owner.getId()))
+                .thenReturn(owner);
+
+        when(itemRequestRepository.findAllById(Set.of(99L)))
+                .thenReturn(Collections.emptyList());
+
+        ItemDto unknown = ItemMapper.mapToItemDto(item);
+        unknown.setRequestId(99L);
+
+        assertThrows(NotFoundException.class, () -> itemService.addItems(owner.getId(),
+                List.of(ItemMapper.mapToItemDto(item), unknown)));
+        verify(itemRepository, never()).saveAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void addCommentPublishesEvent() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findCompletedBooking(item.getId(), booker.getId()))
+                .thenReturn(booking);
+        when(commentRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        CommentDto actual = itemService.addComment(booker.getId(), item.getId(), new CommentCreateDto("text"));
+
+        assertEquals(booker.getName(), actual.getAuthorName());
+        verify(eventPublisher).publishEvent(argThat((CommentAddedEvent event) -> item.getId().equals(event.getItemId())));
+    }
+
     @Test
     public void addCommentUserNotFound() {
         when(userService.getUser(99L))
@@ -271,6 +569,31 @@ class ItemServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemService.updateItem(owner.getId(), 99L, ItemMapper.mapToItemDto(item)));
     }
 
+    @Test
+    public void updateItemPublishesChange() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.ofNullable(item));
+
+        ItemDto update = new ItemDto();
+        update.setName("Перфоратор");
+        itemService.updateItem(owner.getId(), item.getId(), update);
+
+        verify(eventPublisher).publishEvent(argThat((ItemChangedEvent event) ->
+                event.getPrevious().getName().equals("Дрель") && event.getCurrent().getName().equals("Перфоратор")));
+    }
+
+    @Test
+    public void deleteItemPublishesChange() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.ofNullable(item));
+
+        itemService.deleteItem(item.getId());
+
+        verify(itemRepository).delete(item);
+        verify(eventPublisher).publishEvent(argThat((ItemChangedEvent event) ->
+                event.getPrevious().getId().equals(item.getId()) && event.getCurrent() == null));
+    }
+
     @Test
     public void updateItemNotOwner() {
         when(itemRepository.findById(item.getId()))
@@ -278,5 +601,9 @@ class ItemServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(booker.getId(), item.getId(), ItemMapper.mapToItemDto(item)));
     }
-}
 
+    private void passThroughCache() {
+        when(itemSearchCache.get(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, Supplier.class).get());
+    }
+}
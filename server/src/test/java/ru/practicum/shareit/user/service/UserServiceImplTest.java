@@ -12,8 +12,10 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.utility.UserMapper;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -67,6 +69,18 @@ class UserServiceImplTest {
         assertEquals(user.getEmail(), actual.get(0).getEmail());
     }
 
+    @Test
+    public void streamUsers() {
+        when(userRepository.streamAll())
+                .thenReturn(Stream.of(UserMapper.mapToUserDto(user)));
+
+        List<UserDto> actual = new ArrayList<>();
+        userService.streamUsers(actual::add);
+
+        assertEquals(1, actual.size());
+        assertEquals(user.getEmail(), actual.get(0).getEmail());
+    }
+
     @Test
     public void updateUserNotFound() {
         when(userRepository.findById(99L))
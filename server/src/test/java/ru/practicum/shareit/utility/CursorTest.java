@@ -0,0 +1,21 @@
+package ru.practicum.shareit.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+    @Test
+    public void encodeDecode() {
+        String cursor = Cursor.encode("2023-01-01T10:00", 15L);
+        assertArrayEquals(new String[]{"2023-01-01T10:00", "15"}, Cursor.decode(cursor, 2));
+        assertEquals(15L, Cursor.decodeLong(Cursor.encode(15L)));
+    }
+
+    @Test
+    public void decodeInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("!!!", 1));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode(Cursor.encode(1, 2), 1));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decodeLong(Cursor.encode("abc")));
+    }
+}